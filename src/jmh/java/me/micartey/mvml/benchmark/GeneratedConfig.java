@@ -0,0 +1,107 @@
+package me.micartey.mvml.benchmark;
+
+import lombok.Getter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuration file with a certain amount of keys, which are spread evenly over a certain depth.
+ * Every value is the index of its key
+ */
+@Getter
+public class GeneratedConfig {
+
+    private final File file;
+    private final String[] keys;
+
+    private GeneratedConfig(File file, String[] keys) {
+        this.file = file;
+        this.keys = keys;
+    }
+
+    /**
+     * @param keys amount of keys
+     * @param depth depth of the keys, 1 for keys without parents
+     * @return generated file
+     * @throws IOException if the file cannot be written
+     */
+    public static GeneratedConfig create(int keys, int depth) throws IOException {
+        File file = File.createTempFile("mvml-benchmark", ".yml");
+        file.deleteOnExit();
+
+        int fanout = (int) Math.ceil(Math.pow(keys, 1.0 / depth));
+        String[] paths = new String[keys];
+
+        int[] previous = null;
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int index = 0; index < keys; index++) {
+                int[] digits = digits(index, fanout, depth);
+                StringBuilder path = new StringBuilder();
+
+                for (int level = 0; level < depth; level++) {
+                    String key = (level == depth - 1 ? "key" : "section") + digits[level];
+
+                    if (level > 0)
+                        path.append('.');
+
+                    path.append(key);
+
+                    // Parents are written once, before their first child
+                    boolean written = previous != null && level < depth - 1 && samePrefix(previous, digits, level);
+
+                    if (written)
+                        continue;
+
+                    for (int indent = 0; indent < level; indent++)
+                        writer.write("  ");
+
+                    writer.write(key);
+                    writer.write(level == depth - 1 ? ": " + index : ":");
+                    writer.newLine();
+                }
+
+                paths[index] = path.toString();
+                previous = digits;
+            }
+        }
+
+        return new GeneratedConfig(file, paths);
+    }
+
+    /**
+     * @return random key of the file
+     */
+    public String randomKey() {
+        return this.keys[ThreadLocalRandom.current().nextInt(this.keys.length)];
+    }
+
+    public void delete() {
+        this.file.delete();
+    }
+
+    private static int[] digits(int index, int fanout, int depth) {
+        int[] digits = new int[depth];
+
+        for (int level = depth - 1; level >= 0; level--) {
+            digits[level] = index % fanout;
+            index /= fanout;
+        }
+
+        return digits;
+    }
+
+    private static boolean samePrefix(int[] previous, int[] digits, int level) {
+        for (int index = 0; index <= level; index++) {
+            if (previous[index] != digits[index])
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package me.micartey.mvml.benchmark;
+
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int keys;
+
+    @Param({"1", "4"})
+    private int depth;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private GeneratedConfig config;
+    private MvmlConfiguration configuration;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.config = GeneratedConfig.create(this.keys, this.depth);
+        this.configuration = new MvmlConfiguration(this.config.getFile()).setBuffer(new FileBuffer()).setParallel(this.parallel);
+    }
+
+    @Benchmark
+    public MvmlParser load() throws IOException {
+        return this.configuration.load();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.config.delete();
+    }
+}
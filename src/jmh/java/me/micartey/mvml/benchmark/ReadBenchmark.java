@@ -0,0 +1,82 @@
+package me.micartey.mvml.benchmark;
+
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int keys;
+
+    @Param({"1", "4"})
+    private int depth;
+
+    private GeneratedConfig config;
+    private MvmlParser parser;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.config = GeneratedConfig.create(this.keys, this.depth);
+        this.parser = new MvmlConfiguration(this.config.getFile())
+                .setBuffer(new FileBuffer())
+                .setConcurrent(true)
+                .load();
+    }
+
+    @Benchmark
+    public String get() {
+        return this.parser.get(this.config.randomKey());
+    }
+
+    @Benchmark
+    public Integer getTyped() {
+        return this.parser.get(this.config.randomKey(), Integer.class);
+    }
+
+    @Benchmark
+    public int getInt() {
+        return this.parser.getInt(this.config.randomKey());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getParallel() {
+        return this.parser.get(this.config.randomKey());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Map.Entry<String, String>> readAll() {
+        return this.parser.readAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long stream() {
+        return this.parser.stream().mapToLong(entry -> entry.getValue().length()).sum();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long streamParallel() {
+        return this.parser.stream().parallel().mapToLong(entry -> entry.getValue().length()).sum();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.config.delete();
+    }
+}
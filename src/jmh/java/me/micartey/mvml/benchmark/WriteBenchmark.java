@@ -0,0 +1,65 @@
+package me.micartey.mvml.benchmark;
+
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MigrationReport;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    private int keys;
+
+    @Param({"1", "4"})
+    private int depth;
+
+    private GeneratedConfig config;
+    private MvmlParser parser;
+
+    private int value;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.config = GeneratedConfig.create(this.keys, this.depth);
+        this.parser = new MvmlConfiguration(this.config.getFile())
+                .setBuffer(new FileBuffer())
+                .load();
+    }
+
+    @Benchmark
+    public void set() {
+        this.parser.set(this.config.randomKey(), this.value++);
+    }
+
+    /**
+     * Change a single value and save, which only rewrites the file from the changed line on
+     */
+    @Benchmark
+    public void save() {
+        this.parser.set(this.config.randomKey(), this.value++);
+        this.parser.save();
+    }
+
+    /**
+     * Migrate to the unchanged file, thus every value of the file is matched
+     */
+    @Benchmark
+    public MigrationReport migrate() throws IOException {
+        return this.parser.migrate();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.config.delete();
+    }
+}
@@ -0,0 +1,190 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.nodes.LeafNode;
+import me.micartey.mvml.nodes.Node;
+import me.micartey.mvml.nodes.NodeList;
+import me.micartey.mvml.nodes.RootNode;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Walks a tree depth first and returns the full path and value of every {@link LeafNode}.
+ * Only the path to the current node is kept, the full path of a leaf is built in a single reused builder.
+ * Splitting hands half of the remaining children of the shallowest node to a new spliterator
+ */
+class EntrySpliterator implements Spliterator<Map.Entry<String, String>> {
+
+    private final RootNode root;
+    private final StringBuilder path;
+
+    /**
+     * Children, next and end position per level of the current path and the length of the path before the level
+     */
+    private NodeList[] children;
+    private int[] positions;
+    private int[] ends;
+    private int[] lengths;
+    private int depth;
+
+    private long estimate;
+
+    /**
+     * @param root tree
+     * @param node node whose children are visited
+     * @param path full path of the node or null for the root
+     */
+    EntrySpliterator(RootNode root, Node node, String path) {
+        this.root = root;
+        this.path = new StringBuilder(path == null ? "" : path + ".");
+
+        this.children = new NodeList[8];
+        this.positions = new int[8];
+        this.ends = new int[8];
+        this.lengths = new int[8];
+        this.estimate = root.size();
+
+        this.enter(node);
+    }
+
+    private EntrySpliterator(EntrySpliterator other) {
+        this.root = other.root;
+        this.path = new StringBuilder(other.path);
+
+        this.children = other.children.clone();
+        this.positions = other.positions.clone();
+        this.ends = other.ends.clone();
+        this.lengths = other.lengths.clone();
+        this.depth = other.depth;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map.Entry<String, String>> action) {
+        while (this.depth > 0) {
+            int top = this.depth - 1;
+
+            if (this.positions[top] == this.ends[top]) {
+                this.children[top] = null;
+                this.depth--;
+                continue;
+            }
+
+            Node child = this.children[top].get(this.positions[top]++);
+
+            this.path.setLength(this.lengths[top]);
+
+            // Text has neither a value nor children
+            if (child.getKey() == null)
+                continue;
+
+            this.path.append(child.getKey());
+
+            if (child instanceof LeafNode) {
+                action.accept(new AbstractMap.SimpleImmutableEntry<>(this.path.toString(), ((LeafNode) child).getValue()));
+                return true;
+            }
+
+            this.path.append('.');
+            this.enter(child);
+        }
+
+        return false;
+    }
+
+    @Override
+    public Spliterator<Map.Entry<String, String>> trySplit() {
+        // Sections must not be parsed by multiple threads at once
+        if (this.root.isLazy()) {
+            synchronized (this.root) {
+                this.root.materialize();
+            }
+        }
+
+        while (this.depth > 0) {
+            for (int level = 0; level < this.depth; level++) {
+                if (this.ends[level] - this.positions[level] >= 2)
+                    return this.split(level);
+            }
+
+            // Descending into a single remaining parent does not return anything
+            int top = this.depth - 1;
+
+            if (this.ends[top] - this.positions[top] != 1)
+                return null;
+
+            Node child = this.children[top].get(this.positions[top]);
+
+            if (child instanceof LeafNode || child.getKey() == null)
+                return null;
+
+            this.positions[top]++;
+            this.path.setLength(this.lengths[top]);
+            this.path.append(child.getKey()).append('.');
+            this.enter(child);
+        }
+
+        return null;
+    }
+
+    /**
+     * Hand the current path and the first half of the remaining children of a level to a new spliterator
+     *
+     * @param level level with at least two remaining children
+     * @return spliterator of all entries before the second half
+     */
+    private EntrySpliterator split(int level) {
+        int middle = this.positions[level] + (this.ends[level] - this.positions[level]) / 2;
+
+        EntrySpliterator prefix = new EntrySpliterator(this);
+
+        // Remaining children of shallower levels follow the second half
+        for (int index = 0; index < level; index++)
+            prefix.ends[index] = prefix.positions[index];
+
+        prefix.ends[level] = middle;
+
+        for (int index = level + 1; index < this.depth; index++)
+            this.children[index] = null;
+
+        this.positions[level] = middle;
+        this.depth = level + 1;
+        this.path.setLength(this.lengths[level]);
+
+        this.estimate >>>= 1;
+        prefix.estimate = this.estimate;
+
+        return prefix;
+    }
+
+    private void enter(Node node) {
+        if (this.depth == this.children.length) {
+            int length = this.depth * 2;
+
+            this.children = Arrays.copyOf(this.children, length);
+            this.positions = Arrays.copyOf(this.positions, length);
+            this.ends = Arrays.copyOf(this.ends, length);
+            this.lengths = Arrays.copyOf(this.lengths, length);
+        }
+
+        NodeList children = node.getChildren();
+
+        this.children[this.depth] = children;
+        this.positions[this.depth] = 0;
+        this.ends[this.depth] = children.size();
+        this.lengths[this.depth] = this.path.length();
+        this.depth++;
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
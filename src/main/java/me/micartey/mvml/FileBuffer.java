@@ -0,0 +1,283 @@
+package me.micartey.mvml;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import me.micartey.mvml.nodes.*;
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Parsed trees of files, shared by all parsers which use the same buffer.
+ * The buffer can be bounded by the amount of files and the total length of the files, in which case
+ * the least recently used trees are evicted. Evicted files are parsed again on their next access.
+ * Trees with changes which have not been saved are never evicted
+ */
+@Accessors(chain = true)
+public class FileBuffer {
+
+    /**
+     * Unbounded buffer which is used if no buffer has been configured
+     */
+    public static final FileBuffer SHARED = new FileBuffer();
+
+    /**
+     * Maximum amount of files, 0 for no limit
+     */
+    @Getter @Setter private int maximumSize;
+
+    /**
+     * Maximum total length of the files in bytes, 0 for no limit
+     */
+    @Getter @Setter private long maximumWeight;
+
+    /**
+     * Only keep soft references to unmodified trees, which the garbage collector may clear when memory is low
+     */
+    @Getter @Setter private boolean softValues;
+
+    /**
+     * Pool for keys and values of all trees parsed into this buffer, null to not share strings between files
+     */
+    @Getter @Setter private StringPool pool;
+
+    private final Map<File, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<File, Lock> locks = new ConcurrentHashMap<>();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong weight = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Object evictionLock = new Object();
+
+    /**
+     * @param file file
+     * @return tree of the file or null if it is not buffered
+     */
+    RootNode get(File file) {
+        Entry entry = this.entries.get(file);
+        RootNode root = entry == null ? null : entry.get();
+
+        if (root == null) {
+            this.misses.increment();
+
+            // The garbage collector cleared the tree
+            if (entry != null && this.entries.remove(file, entry)) {
+                this.weight.addAndGet(-entry.weight);
+                this.evictions.increment();
+            }
+
+            return null;
+        }
+
+        // The clock only advances when trees are added, thus readers rarely write to the entry
+        long now = this.clock.get();
+
+        if (entry.access != now)
+            entry.access = now;
+
+        this.hits.increment();
+        return root;
+    }
+
+    /**
+     * @param file file
+     * @return tree of the file or null if it is not buffered, without counting as access
+     */
+    RootNode peek(File file) {
+        Entry entry = this.entries.get(file);
+        return entry == null ? null : entry.get();
+    }
+
+    /**
+     * Buffer the tree of a file. Has to be called again whenever the tree has been modified,
+     * so modified trees are kept even if only soft references are used
+     *
+     * @param file file
+     * @param root tree of the file
+     */
+    void put(File file, RootNode root) {
+        Entry entry = new Entry(root, this.softValues && !root.isModified(), Math.max(root.getFileLength(), 0));
+        entry.access = this.clock.incrementAndGet();
+
+        Entry previous = this.entries.put(file, entry);
+        this.weight.addAndGet(entry.weight - (previous == null ? 0 : previous.weight));
+
+        if (previous == null || entry.weight > previous.weight)
+            this.evict();
+    }
+
+    /**
+     * @param file file
+     * @return lock which serializes writers of the file
+     */
+    Lock lock(File file) {
+        return this.locks.computeIfAbsent(file, key -> new ReentrantLock());
+    }
+
+    /**
+     * Estimate the memory used by the tree of a file, including its index.
+     * Pooled strings are shared with other trees and not included
+     *
+     * @param file file
+     * @return estimated bytes or -1 if the file is not buffered
+     */
+    public long getFootprint(File file) {
+        Entry entry = this.entries.get(file);
+        RootNode root = entry == null ? null : entry.get();
+
+        if (root == null)
+            return -1;
+
+        return this.footprint(root, 0);
+    }
+
+    private long footprint(Node node, int path) {
+        long size = node instanceof LeafNode ? 40 : 32;
+
+        size += this.sizeOf(node.getKey());
+
+        if (node instanceof LeafNode)
+            size += this.sizeOf(((LeafNode) node).getValue());
+        else if (node instanceof TextNode)
+            size += this.sizeOf(node.toData());
+
+        // Entry and full path in the index
+        if (node.getKey() != null && !(node instanceof RootNode))
+            size += 40 + StringPool.sizeOf(path);
+
+        if (node instanceof LazyNode && !((LazyNode) node).isLoaded())
+            return size;
+
+        NodeList children = node.getChildren();
+
+        if (!children.isEmpty())
+            size += StringPool.align(16 + 4L * children.size());
+
+        for (Node child : children) {
+            int length = child.getKey() == null ? 0 : child.getKey().length();
+            size += this.footprint(child, path == 0 ? length : path + 1 + length);
+        }
+
+        return size;
+    }
+
+    private long sizeOf(String string) {
+        if (string == null || this.pool != null && this.pool.isPooled(string))
+            return 0;
+
+        return StringPool.sizeOf(string);
+    }
+
+    /**
+     * @return amount of buffered files
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * @return amount of lookups which found a tree
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return amount of lookups which required parsing the file
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return amount of evicted and garbage collected trees
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    private boolean isExceeded() {
+        return this.maximumSize > 0 && this.entries.size() > this.maximumSize
+                || this.maximumWeight > 0 && this.weight.get() > this.maximumWeight;
+    }
+
+    /**
+     * Evict the least recently used trees until the buffer is within its bounds.
+     * Evicting a batch of trees at once amortizes sorting the entries
+     */
+    private void evict() {
+        if (!this.isExceeded())
+            return;
+
+        synchronized (this.evictionLock) {
+            if (!this.isExceeded())
+                return;
+
+            List<Map.Entry<File, Entry>> candidates = new ArrayList<>(this.entries.entrySet());
+
+            for (Map.Entry<File, Entry> candidate : candidates)
+                candidate.getValue().order = candidate.getValue().access;
+
+            candidates.sort((first, second) -> Long.compare(first.getValue().order, second.getValue().order));
+
+            // Evict a few more trees than required, so the entries do not have to be sorted on every insertion
+            int slack = this.maximumSize > 0 ? Math.max(this.maximumSize / 20, 1) : 0;
+
+            for (Map.Entry<File, Entry> candidate : candidates) {
+                boolean exceeded = this.maximumSize > 0 && this.entries.size() > this.maximumSize - slack
+                        || this.maximumWeight > 0 && this.weight.get() > this.maximumWeight;
+
+                if (!exceeded)
+                    break;
+
+                RootNode root = candidate.getValue().get();
+
+                // Unsaved changes would be lost
+                if (root != null && root.isModified())
+                    continue;
+
+                if (this.entries.remove(candidate.getKey(), candidate.getValue())) {
+                    this.weight.addAndGet(-candidate.getValue().weight);
+                    this.evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static class Entry {
+
+        private final RootNode root;
+        private final SoftReference<RootNode> reference;
+        private final long weight;
+
+        private volatile long access;
+
+        /**
+         * Snapshot of the access time, entries cannot be sorted by a value which changes while sorting
+         */
+        private long order;
+
+        private Entry(RootNode root, boolean soft, long weight) {
+            this.root = soft ? null : root;
+            this.reference = soft ? new SoftReference<>(root) : null;
+            this.weight = weight;
+        }
+
+        private RootNode get() {
+            return this.root != null ? this.root : this.reference.get();
+        }
+    }
+}
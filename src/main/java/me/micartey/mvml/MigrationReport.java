@@ -0,0 +1,34 @@
+package me.micartey.mvml;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keys which have been affected by {@link MvmlParser#migrate()}
+ */
+@Getter
+public class MigrationReport {
+
+    /**
+     * Keys of the new file which did not exist before
+     */
+    private final List<String> added = new ArrayList<>();
+
+    /**
+     * Keys which are not part of the new file, they are kept with their previous value
+     */
+    private final List<String> retained = new ArrayList<>();
+
+    /**
+     * Keys whose value in the new file has been replaced by the previous value
+     */
+    private final List<String> overridden = new ArrayList<>();
+
+    /**
+     * Keys whose previous value has been dropped, because the new file has a value where the previous file
+     * had a section or vice versa
+     */
+    private final List<String> conflicting = new ArrayList<>();
+}
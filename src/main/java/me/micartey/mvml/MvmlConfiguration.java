@@ -4,6 +4,9 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import me.micartey.mvml.commons.Streams;
+import me.micartey.mvml.converter.ConverterRegistry;
+import me.micartey.mvml.metrics.MvmlListener;
+import me.micartey.mvml.metrics.MvmlOperation;
 
 import java.io.File;
 import java.io.IOException;
@@ -20,13 +23,39 @@ public class MvmlConfiguration {
     private String template;
     private Class<?> streamClass;
     private boolean createBackup;
+    private boolean concurrent;
+    private boolean memoryMapped;
+    private boolean lazy;
+    private boolean binaryCache;
+
+    /**
+     * Parse root level sections of large files concurrently on the common fork-join pool
+     */
+    private boolean parallel;
+
+    private long writeBehindDelay;
+    private boolean atomicSave;
+    private boolean syncOnSave;
+
+    /**
+     * Milliseconds without further modifications before a watched file is reloaded
+     */
+    private long watchDelay = 100;
     private int spaces = 2;
+    private ConverterRegistry converters = new ConverterRegistry();
+    private FileBuffer buffer = FileBuffer.SHARED;
+
+    /**
+     * Receives measurements of the parser, nothing is measured if there is none
+     */
+    private MvmlListener listener;
 
     public MvmlConfiguration(File file) {
         this.file = file;
     }
 
     public MvmlParser load() throws IOException {
+        long start = this.listener == null ? 0 : System.nanoTime();
         MvmlParser parser = new MvmlParser(this);
 
         if (streamClass == null) {
@@ -55,15 +84,18 @@ public class MvmlConfiguration {
                 break loadTemplate;
             }
 
-            parser.parseFile();
-
-            Files.write(file.toPath(), Streams.getValues(streamClass.getResourceAsStream("/" + this.template)));
-
-            parser.migrate();
-            parser.save();
+            parser.parseTemplate(Streams.getValues(streamClass.getResourceAsStream("/" + this.template)));
+            return this.loaded(parser, start);
         }
 
         parser.parseFile();
+        return this.loaded(parser, start);
+    }
+
+    private MvmlParser loaded(MvmlParser parser, long start) {
+        if (this.listener != null)
+            this.listener.onOperation(MvmlOperation.LOAD, this.file, System.nanoTime() - start, 0);
+
         return parser;
     }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package me.micartey.mvml;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.micartey.mvml.nodes.LeafNode;
+import me.micartey.mvml.nodes.Node;
+import me.micartey.mvml.nodes.RootNode;
+
+/**
+ * Precompiled key which resolves directly to its {@link LeafNode}.
+ * The resolved node is cached until the file is re-read or a path is removed
+ *
+ * @see MvmlParser#compile(String)
+ */
+public class MvmlKey {
+
+    private final MvmlParser parser;
+    @Getter private final String key;
+
+    private volatile Resolved resolved;
+
+    MvmlKey(MvmlParser parser, String key) {
+        this.parser = parser;
+        this.key = key;
+    }
+
+    /**
+     * Resolve the node of this key
+     *
+     * @return LeafNode or null if the key is not present
+     */
+    private LeafNode resolve() {
+        RootNode root = this.parser.root();
+        Resolved resolved = this.resolved;
+
+        if (resolved != null && resolved.root == root && resolved.modCount == root.getModCount())
+            return resolved.node;
+
+        Node match = root.lookup(this.key);
+
+        if (match == null)
+            return null;
+
+        if (!(match instanceof LeafNode))
+            throw new RuntimeException("Node is not FinalNode: " + match.getKey());
+
+        this.resolved = new Resolved(root, root.getModCount(), (LeafNode) match);
+        return (LeafNode) match;
+    }
+
+    /**
+     * Get the value of this key
+     *
+     * @return value (String)
+     */
+    public String get() {
+        return this.getLeaf().getValue();
+    }
+
+    private LeafNode getLeaf() {
+        LeafNode node = this.resolve();
+        this.parser.reportLookup(this.key, node != null);
+
+        if (node == null)
+            throw new RuntimeException("Key not present: " + this.key);
+
+        return node;
+    }
+
+    /**
+     * Get the value of this key and convert it to a certain type
+     *
+     * @param type object class
+     * @return instance of T
+     * @param <T> object type
+     */
+    public <T> T get(Class<T> type) {
+        return MvmlParser.box(type).cast(this.parser.convert(type, this.get()));
+    }
+
+    /**
+     * @return value as int, cached until the value changes
+     */
+    public int getInt() {
+        return MvmlParser.toInt(this.getLeaf().getLongValue());
+    }
+
+    /**
+     * @return value as long, cached until the value changes
+     */
+    public long getLong() {
+        return this.getLeaf().getLongValue();
+    }
+
+    /**
+     * @return value as double, cached until the value changes
+     */
+    public double getDouble() {
+        return this.getLeaf().getDoubleValue();
+    }
+
+    /**
+     * @return value as boolean, cached until the value changes
+     */
+    public boolean getBoolean() {
+        return this.getLeaf().getBooleanValue();
+    }
+
+    /**
+     * Set the value of this key.
+     * If the path is not present, it will create all required Nodes
+     *
+     * @param value Value
+     */
+    public void set(Object value) {
+        this.setValue(String.valueOf(value));
+    }
+
+    /**
+     * Set an int value for this key without boxing it
+     *
+     * @param value Value
+     */
+    public void set(int value) {
+        this.setValue(Integer.toString(value));
+    }
+
+    /**
+     * Set a long value for this key without boxing it
+     *
+     * @param value Value
+     */
+    public void set(long value) {
+        this.setValue(Long.toString(value));
+    }
+
+    /**
+     * Set a float value for this key without boxing it
+     *
+     * @param value Value
+     */
+    public void set(float value) {
+        this.setValue(Float.toString(value));
+    }
+
+    /**
+     * Set a double value for this key without boxing it
+     *
+     * @param value Value
+     */
+    public void set(double value) {
+        this.setValue(Double.toString(value));
+    }
+
+    /**
+     * Set a boolean value for this key without boxing it
+     *
+     * @param value Value
+     */
+    public void set(boolean value) {
+        this.setValue(value ? "true" : "false");
+    }
+
+    /**
+     * Set a char value for this key without boxing it
+     *
+     * @param value Value
+     */
+    public void set(char value) {
+        this.setValue(String.valueOf(value));
+    }
+
+    private void setValue(String value) {
+        // Published snapshots must not be modified and background saves must not be interfered with
+        LeafNode node = this.parser.isLocking() ? null : this.resolve();
+
+        if (node == null) {
+            this.parser.set(this.key, value);
+            return;
+        }
+
+        // Writing the tree back to the buffer keeps modified trees from being evicted
+        this.parser.write(root -> {
+            this.parser.update(root, node, value);
+            return root;
+        });
+
+        this.parser.reportSet(this.key);
+    }
+
+    /**
+     * @return true if the key is present
+     */
+    public boolean isPresent() {
+        boolean present = this.resolve() != null;
+        this.parser.reportLookup(this.key, present);
+
+        return present;
+    }
+
+    @Override
+    public String toString() {
+        return this.key;
+    }
+
+    @RequiredArgsConstructor
+    private static class Resolved {
+        private final RootNode root;
+        private final int modCount;
+        private final LeafNode node;
+    }
+}
@@ -1,120 +1,316 @@
 package me.micartey.mvml;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import me.micartey.mvml.commons.CountingWriter;
 import me.micartey.mvml.commons.FileUtilities;
+import me.micartey.mvml.metrics.MvmlListener;
+import me.micartey.mvml.metrics.MvmlOperation;
 import me.micartey.mvml.nodes.*;
 
-import java.io.File;
-import java.io.IOException;
-import java.lang.reflect.Method;
+import java.io.*;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @RequiredArgsConstructor
 public class MvmlParser {
 
-    private static final Map<File, Node> FILE_BUFFER = new HashMap<>();
+    private static final ScheduledExecutorService WRITE_BEHIND = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mvml-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    private final MvmlConfiguration configuration;
+    @Getter private final MvmlConfiguration configuration;
+
+    private final Object saveLock = new Object();
+    private CompletableFuture<Void> pendingSave;
+
+    /**
+     * Amount of saves which have been requested in the background and did not finish yet
+     */
+    private final AtomicInteger backgroundSaves = new AtomicInteger();
+
+    /**
+     * Amount of open watchers, which replace the tree from their own thread
+     */
+    final AtomicInteger watchers = new AtomicInteger();
 
     void parseFile() throws IOException {
-        Node root = new RootNode();
-
-        readLine: for (String line : FileUtilities.readFile(this.configuration.getFile())) {
-            /*
-             * Root comments
-             */
-            if (line.startsWith("#")) {
-                root.getChildren().add(new TextNode(line));
-                continue;
-            }
+        this.configuration.getBuffer().put(this.configuration.getFile(), this.parse());
+    }
 
-            /*
-             * Empty lines
-             */
-            if (line.isEmpty()) {
-                Node node = root.getChildren().getLast();
-                while (!node.getChildren().isEmpty())
-                    node = node.getChildren().getLast();
+    private RootNode parse() throws IOException {
+        MvmlListener listener = this.configuration.getListener();
 
-                node.getChildren().add(new TextNode(line));
-                continue;
+        if (listener == null)
+            return this.parseTree();
+
+        long start = System.nanoTime();
+        RootNode root = this.parseTree();
+
+        listener.onOperation(MvmlOperation.PARSE, this.configuration.getFile(), System.nanoTime() - start, Math.max(root.getFileLength(), 0));
+        listener.onParsed(this.configuration.getFile(), root.size());
+        return root;
+    }
+
+    private RootNode parseTree() throws IOException {
+        File file = this.configuration.getFile();
+        TreeBuilder builder = this.builder();
+
+        if (this.configuration.isBinaryCache()) {
+            RootNode cached = TreeCache.read(file, this.configuration.getSpaces(), this.configuration.getBuffer().getPool());
+
+            if (cached != null)
+                return cached;
+        }
+
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        try {
+            // Sections parsed on access would be indexed while other threads read the index
+            if (this.configuration.isLazy() && !this.isLocking()) {
+                ByteBuffer buffer = this.configuration.isMemoryMapped() ? FileUtilities.mapFile(file) : FileUtilities.readBuffer(file);
+                this.parseLazily(builder, buffer);
+            } else if (this.configuration.isParallel()) {
+                ByteBuffer buffer = this.configuration.isMemoryMapped() ? FileUtilities.mapFile(file) : FileUtilities.readBuffer(file);
+                SectionTask.parse(builder, buffer, this.configuration.getSpaces(), this.configuration.getBuffer().getPool());
+            } else if (this.configuration.isMemoryMapped()) {
+                FileUtilities.readLines(FileUtilities.mapFile(file), builder::accept);
+            } else {
+                for (String line : FileUtilities.readFile(file))
+                    builder.accept(line);
             }
+        } catch (UncheckedIOException exception) {
+            // Malformed content fails like it does when the file is read line by line
+            throw exception.getCause();
+        }
 
-            /*
-             * Parent node
-             */
-            if (line.endsWith(":")) {
-                char[] chars = line.toCharArray();
+        RootNode root = builder.build();
+        root.track(length, lastModified);
 
-                // TODO: Redo
-                for (int index = 0; index < chars.length; index++) {
-                    if (!isAlphabetic(chars[index]))
-                        continue;
+        // Caching lazy trees would parse all sections
+        if (this.configuration.isBinaryCache() && file.exists() && !root.isLazy())
+            TreeCache.write(file, root, this.configuration.getSpaces(), length, lastModified);
 
-                    String key = line.substring(index, line.length() - 1);
+        return root;
+    }
 
-                    if (index == 0) {
-                        root.getChildren().addLast(new ParentNode(key)); // Parent Node
-                        continue readLine;
-                    }
+    /**
+     * Merge the current values of the file into a template and publish the result.
+     * The template and the file are read once and the file is only written if the result differs from it.
+     * Memory mapping and parallel parsing apply to the file, lazy parsing and the binary cache do not,
+     * since every section of the file is merged
+     *
+     * @param template lines of the template
+     * @throws IOException if the file cannot be read or written
+     */
+    void parseTemplate(List<String> template) throws IOException {
+        File file = this.configuration.getFile();
+        int spaces = this.configuration.getSpaces();
+        ByteBuffer content = this.configuration.isMemoryMapped() ? FileUtilities.mapFile(file) : FileUtilities.readBuffer(file);
 
-                    Node parent = root.getChildren().getLast();
-                    for (int depth = 0; depth < index / this.configuration.getSpaces() - 1; depth++) {
-                        parent = parent.getChildren().getLast();
-                    }
+        TreeBuilder current = this.builder();
 
-                    parent.getChildren().add(new ParentNode(key));
+        try {
+            if (this.configuration.isParallel())
+                SectionTask.parse(current, content.duplicate(), spaces, this.configuration.getBuffer().getPool());
+            else
+                FileUtilities.readLines(content, current::accept);
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
 
-                    continue readLine;
-                }
+        TreeBuilder builder = this.builder();
+        template.forEach(builder::accept);
 
-                continue;
-            }
+        RootNode root = builder.build();
+        new TreeMerger(root).merge(current.build());
 
-            /*
-             * Comments with indents
-             */
-            if (line.contains("#")) {
-                long indents = this.countIndents(line);
+        StringWriter writer = new StringWriter(content.remaining());
+        new TreeWriter(writer, System.lineSeparator(), spaces, true).write(root, 0);
 
-                Node node = root.getChildren().getLast();
-                for (int i = 0; i < indents - 1; i++)
-                    node = node.getChildren().getLast();
+        String merged = writer.toString();
+        byte[] bytes = merged.getBytes(StandardCharsets.UTF_8);
+        Lock lock = this.configuration.getBuffer().lock(file);
 
-                node.getChildren().addLast(new TextNode(line));
-                continue;
-            }
+        lock.lock();
 
-            /*
-             * Value nodes
-             */
-            if (line.contains(":")) {
-                int index = line.indexOf(":");
+        try {
+            // Lines have been numbered while serializing, thus the tree matches the file once it has been written
+            if (!ByteBuffer.wrap(bytes).equals(content))
+                this.writeMerged(file, merged, bytes.length);
+
+            root.markSynchronized(file);
+            this.configuration.getBuffer().put(file, root);
+        } finally {
+            lock.unlock();
+        }
 
-                String key = line.substring(0, index).trim();
-                String value = line.substring(index +  1).trim();
+        if (this.configuration.getListener() != null)
+            this.configuration.getListener().onParsed(file, root.size());
+    }
 
-                long indents = this.countIndents(line);
+    /**
+     * Write the serialized result of a template, instead of serializing the tree again
+     */
+    private void writeMerged(File file, String merged, long bytes) throws IOException {
+        MvmlListener listener = this.configuration.getListener();
+        long start = listener == null ? 0 : System.nanoTime();
 
-                // Root level value node
-                if (indents == 0) {
-                    root.getChildren().add(new LeafNode(key, value));
-                    continue;
-                }
+        FileUtilities.Content content = (writer, separator) -> writer.write(merged);
 
-                Node node = root.getChildren().getLast();
-                for (int i = 0; i < indents - 1; i++)
-                    node = node.getChildren().getLast();
+        if (this.configuration.isAtomicSave()) {
+            FileUtilities.writeFileAtomically(file, content, this.configuration.isSyncOnSave());
+        } else {
+            FileUtilities.writeFile(file, content);
 
-                node.getChildren().addLast(new LeafNode(key, value));
+            if (this.configuration.isSyncOnSave())
+                FileUtilities.sync(file);
+        }
+
+        if (listener != null)
+            listener.onOperation(MvmlOperation.SAVE, file, System.nanoTime() - start, bytes);
+    }
+
+    /**
+     * Parse only root level lines and defer parsing the children of root level parent nodes until they are accessed
+     *
+     * @param builder builder
+     * @param buffer content of the file
+     */
+    private void parseLazily(TreeBuilder builder, ByteBuffer buffer) {
+        RootNode root = builder.getRoot();
+        int spaces = this.configuration.getSpaces();
+        StringPool pool = this.configuration.getBuffer().getPool();
+
+        for (SectionScanner.Section section : SectionScanner.split(buffer, spaces)) {
+            if (!section.isDeferrable()) {
+                FileUtilities.readLines(buffer, section.getStart(), section.getEnd(), builder::accept);
                 continue;
             }
 
-            throw new RuntimeException("No implemention found for: " + line);
+            builder.accept(new LazyNode(section.getKey(), (node, children) -> {
+                ParentNode parent = new ParentNode(node.getKey());
+                TreeBuilder sectionBuilder = new TreeBuilder(spaces, root, parent, section.getLine() + 1).setPool(pool);
+
+                FileUtilities.readLines(buffer, section.getBodyStart(), section.getEnd(), sectionBuilder::accept);
+
+                children.addAll(parent.getChildren());
+                root.registerChildren(node, node.getKey());
+            }), section.getLines());
+
+            root.setLazy(true);
+        }
+    }
+
+    /**
+     * @return builder which shares strings with other trees of the buffer
+     */
+    TreeBuilder builder() {
+        return new TreeBuilder(this.configuration.getSpaces()).setPool(this.configuration.getBuffer().getPool());
+    }
+
+    /**
+     * Get the tree of the file, the file is parsed again if its tree has been evicted from the buffer
+     *
+     * @return tree
+     */
+    @SneakyThrows
+    RootNode root() {
+        File file = this.configuration.getFile();
+        RootNode root = this.configuration.getBuffer().get(file);
+
+        if (root != null)
+            return root;
+
+        // A writer might publish a tree while the file is parsed again
+        Lock lock = this.configuration.getBuffer().lock(file);
+        lock.lock();
+
+        try {
+            root = this.configuration.getBuffer().peek(file);
+
+            if (root != null)
+                return root;
+
+            // Trees with unsaved changes are never evicted
+            root = this.parse();
+            this.configuration.getBuffer().put(file, root);
+            return root;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run an operation which modifies or replaces the tree of the file.
+     * In concurrent mode, writers are serialized and the result is published as a new snapshot
+     *
+     * @param operation operation which returns the tree to publish
+     */
+    @SneakyThrows
+    void write(Operation operation) {
+        File file = this.configuration.getFile();
+        FileBuffer buffer = this.configuration.getBuffer();
+
+        if (!this.isLocking()) {
+            buffer.put(file, operation.apply(this.root()));
+            return;
         }
 
-        FILE_BUFFER.put(this.configuration.getFile(), root);
+        Lock lock = buffer.lock(file);
+        lock.lock();
+
+        try {
+            buffer.put(file, operation.apply(this.root()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writers are serialized in concurrent mode, while a save in the background is pending or running
+     * and while the file is watched
+     *
+     * @return true if writers have to acquire the lock of the file
+     */
+    boolean isLocking() {
+        return this.configuration.isConcurrent() || this.configuration.getWriteBehindDelay() > 0 || this.backgroundSaves.get() > 0
+                || this.watchers.get() > 0;
+    }
+
+    /**
+     * Schedule a save if write-behind is enabled
+     */
+    private void changed() {
+        if (this.configuration.getWriteBehindDelay() > 0)
+            this.saveAsync();
+    }
+
+    /**
+     * Get a tree which can be modified.
+     * In concurrent mode, published snapshots are never modified, thus a copy is returned
+     *
+     * @param root current tree
+     * @return tree to modify
+     */
+    private RootNode modifiable(RootNode root) {
+        return this.configuration.isConcurrent() ? root.copy() : root;
     }
 
     /**
@@ -124,82 +320,73 @@ public class MvmlParser {
      * @return Node if found - if not, it will throw a RuntimeException
      */
     private Node getNodeByKey(String key) {
-        Node root = FILE_BUFFER.get(this.configuration.getFile());
-
-        String[] keys = key.split("\\.");
+        return this.getNodeByKey(this.root(), key);
+    }
 
-        Node node = root;
+    private Node getNodeByKey(RootNode root, String key) {
+        Node node = root.lookup(key);
+        this.reportLookup(key, node != null);
 
-        for (String keyPart : keys) {
-            node = node.getChildren().stream().filter(it -> keyPart.equals(it.getKey()))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Key not present: " + key));
-        }
+        if (node == null)
+            throw new RuntimeException("Key not present: " + key);
 
         return node;
     }
 
     /**
-     * Create nodes for a path
+     * Create nodes for a path.
+     * Existing prefixes are resolved through the index of the root
      *
-     * @param parent root
+     * @param root root
      * @param key Key
+     * @param undo receives the removal of every created node, null if the nodes are kept anyway
      * @return LeafNode
      */
-    private Node createNodePath(Node parent, String key) {
+    private Node createNodePath(RootNode root, String key, Deque<Runnable> undo) {
         if (key.isEmpty()) {
             return null;
         }
 
-        int index = key.indexOf(".");
-        String currentKey;
+        Node current = root.lookup(key);
 
-        if (index != -1) {
-            currentKey = key.substring(0, index);
-        } else {
-            currentKey = key;
+        if (current != null) {
+            return current;
         }
 
-        Node current = parent.getChildren().stream().filter(child -> currentKey.equals(child.getKey()))
-                .findFirst()
-                .orElse(null);
+        current = root;
+        int index = -1;
 
-        if (current == null) {
-            if (index == -1) {
-                current = new LeafNode(currentKey, null);
-                parent.getChildren().addLast(current);
-                return current;
-            } else {
-                current = new ParentNode(currentKey);
-                parent.getChildren().addLast(current);
-                return this.createNodePath(current, key.substring(index + 1));
-            }
-        }
+        do {
+            int next = key.indexOf('.', index + 1);
+            String path = next == -1 ? key : key.substring(0, next);
 
-        if (index == -1) {
-            return current;
-        }
+            Node node = root.lookup(path);
 
-        return this.createNodePath(current, key.substring(index + 1));
-    }
+            if (node == null) {
+                String currentKey = key.substring(index + 1, next == -1 ? key.length() : next);
 
-    private List<Map.Entry<String, String>> readNode(Node node, String path) {
-        List<Map.Entry<String, String>> result = new ArrayList<>();
+                node = next == -1 ? new LeafNode(currentKey, null) : new ParentNode(currentKey);
 
-        if (!(node instanceof LeafNode)) {
-            String prefix = path == null ? "" : path + ".";
+                root.markChanged(RootNode.endOf(current));
+                current.getChildren().addLast(node);
+                root.register(node, path);
 
-            for (Node child : node.getChildren()) {
-                result.addAll(readNode(child, prefix + child.getKey()));
-            }
+                if (undo != null) {
+                    Node parent = current;
+                    Node created = node;
 
-            return result;
-        }
+                    undo.push(() -> {
+                        root.unregister(created, path);
+                        parent.getChildren().remove(created);
+                    });
+                }
+            }
 
-        LeafNode leafNode = (LeafNode) node;
+            current = node;
+            index = next;
+        } while (index != -1);
 
-        result.add(new AbstractMap.SimpleEntry<>(path, leafNode.getValue()));
-        return result;
+        return current;
     }
 
     /**
@@ -209,12 +396,89 @@ public class MvmlParser {
      * @return value (String)
      */
     public String get(String key) {
+        return this.getLeaf(key).getValue();
+    }
+
+    private LeafNode getLeaf(String key) {
         Node match = getNodeByKey(key);
 
         if (!(match instanceof LeafNode))
             throw new RuntimeException("Node is not FinalNode: " + match.getKey());
 
-        return ((LeafNode) match).getValue();
+        return (LeafNode) match;
+    }
+
+    /**
+     * Get the value of a key as int.
+     * The parsed value is cached until the value changes
+     *
+     * @param key Key
+     * @return value
+     */
+    public int getInt(String key) {
+        return toInt(this.getLeaf(key).getLongValue());
+    }
+
+    /**
+     * Get the value of a key as long.
+     * The parsed value is cached until the value changes
+     *
+     * @param key Key
+     * @return value
+     */
+    public long getLong(String key) {
+        return this.getLeaf(key).getLongValue();
+    }
+
+    /**
+     * Get the value of a key as double.
+     * The parsed value is cached until the value changes
+     *
+     * @param key Key
+     * @return value
+     */
+    public double getDouble(String key) {
+        return this.getLeaf(key).getDoubleValue();
+    }
+
+    /**
+     * Get the value of a key as boolean.
+     * The parsed value is cached until the value changes
+     *
+     * @param key Key
+     * @return value
+     */
+    public boolean getBoolean(String key) {
+        return this.getLeaf(key).getBooleanValue();
+    }
+
+    static int toInt(long value) {
+        if ((int) value != value)
+            throw new NumberFormatException("Value out of range for int: " + value);
+
+        return (int) value;
+    }
+
+    /**
+     * @param type type
+     * @return wrapper class of a primitive type or the type itself, which can cast boxed values
+     * @param <T> type
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Class<T> box(Class<T> type) {
+        // The wrapper of a primitive type represents the same values, thus the cast is safe
+        return (Class<T>) MethodType.methodType(type).wrap().returnType();
+    }
+
+    /**
+     * Compile a key into a reusable handle.
+     * The handle resolves straight to its node and is invalidated when the tree changes
+     *
+     * @param key Key
+     * @return compiled key
+     */
+    public MvmlKey compile(String key) {
+        return new MvmlKey(this, key);
     }
 
     /**
@@ -226,7 +490,7 @@ public class MvmlParser {
      * @param <T> object type
      */
     public <T> T get(String key, Class<T> type) {
-        return (T) this.convert(type, this.get(key));
+        return box(type).cast(this.convert(type, this.get(key)));
     }
 
 
@@ -236,18 +500,52 @@ public class MvmlParser {
      * @param key Key to node
      */
     public void remove(String key) {
-        Node target = getNodeByKey(key);
+        this.write(current -> {
+            RootNode root = this.modifiable(current);
+            this.remove(root, key);
+            return root;
+        });
 
-        int index = key.lastIndexOf(":");
+        this.changed();
+    }
+
+    void remove(RootNode root, String key) {
+        this.remove(root, key, null);
+    }
+
+    /**
+     * @param undo receives the inverse of the removal, null if it does not have to be undone
+     */
+    void remove(RootNode root, String key, Deque<Runnable> undo) {
+        Node target = getNodeByKey(root, key);
+
+        int index = key.lastIndexOf(".");
 
         // Remove from root node
-        if (index < 0) {
-            FILE_BUFFER.get(this.configuration.getFile()).getChildren().remove(target);
-            return;
-        }
+        Node parent = index < 0 ? root : getNodeByKey(root, key.substring(0, index));
+        int position = parent.getChildren().indexOf(target);
+
+        parent.getChildren().remove(position);
+        root.unregister(target, key);
+        root.markChanged(target.getLine());
+
+        // A sibling with the same key is no longer shadowed
+        Node sibling = parent.getChildren().stream().filter(child -> target.getKey().equals(child.getKey()))
+                .findFirst()
+                .orElse(null);
+
+        if (sibling != null)
+            root.register(sibling, key);
 
-        String keyPart = key.substring(0, index);
-        getNodeByKey(keyPart).getChildren().remove(target);
+        if (undo != null) {
+            undo.push(() -> {
+                if (sibling != null)
+                    root.unregister(sibling, key);
+
+                parent.getChildren().add(position, target);
+                root.register(target, key);
+            });
+        }
     }
 
     /**
@@ -256,74 +554,466 @@ public class MvmlParser {
      * @return list of pairs
      */
     public List<Map.Entry<String, String>> readAll() {
-        Node root = FILE_BUFFER.get(this.configuration.getFile());
-        return this.readNode(root, null);
+        return this.stream().collect(Collectors.toList());
+    }
+
+    /**
+     * Lazily iterate all key and value pairs in the order of the file.
+     * Only the path to the current node is kept while iterating, the stream can be split to be processed in parallel
+     *
+     * @return stream of pairs
+     */
+    public Stream<Map.Entry<String, String>> stream() {
+        RootNode root = this.root();
+        this.reportLookup("", true);
+
+        return StreamSupport.stream(new EntrySpliterator(root, root, null), false);
+    }
+
+    /**
+     * Lazily iterate all key and value pairs below a key
+     *
+     * @param prefix Key of a parent or value node
+     * @return stream of pairs, empty if the key is not present
+     */
+    public Stream<Map.Entry<String, String>> stream(String prefix) {
+        RootNode root = this.root();
+        Node node = root.lookup(prefix);
+        this.reportLookup(prefix, node != null);
+
+        if (node == null)
+            return Stream.empty();
+
+        if (node instanceof LeafNode)
+            return Stream.of(new AbstractMap.SimpleImmutableEntry<>(prefix, ((LeafNode) node).getValue()));
+
+        return StreamSupport.stream(new EntrySpliterator(root, node, prefix), false);
+    }
+
+    /**
+     * Get a view of the keys below a parent node.
+     * The view always refers to the current tree, thus it can be kept
+     *
+     * @param key Key of a parent node
+     * @return section
+     */
+    public MvmlSection section(String key) {
+        return new MvmlSection(this, key);
+    }
+
+    /**
+     * Create an object from the values below a key in a single pass over its children.
+     * Keys are matched with the components of records and the fields of other classes,
+     * parent nodes are bound to nested objects. Accessors are looked up once per class
+     *
+     * @param key Key of a parent node
+     * @param type record or class with a no-argument constructor
+     * @return new object
+     * @param <T> object type
+     */
+    public <T> T bind(String key, Class<T> type) {
+        Node node = this.getNodeByKey(key);
+
+        if (node instanceof LeafNode)
+            throw new RuntimeException("Node is not ParentNode: " + node.getKey());
+
+        return box(type).cast(ObjectBinding.of(type).bind(node, this.configuration.getConverters()));
+    }
+
+    /**
+     * Set the values of all components or fields of an object below a key at once.
+     * Nested objects are written as sections
+     *
+     * @param key Key of a parent node
+     * @param object object
+     */
+    public void unbind(String key, Object object) {
+        this.update(transaction -> ObjectBinding.of(object.getClass()).unbind(object, key, transaction, this.configuration.getConverters()));
+    }
+
+    /**
+     * Get all key and value pairs whose key is within a range, ordered by their keys.
+     * Keys are looked up in a sorted index, which is built on first use
+     *
+     * @param from first key (inclusive)
+     * @param to last key (exclusive)
+     * @return list of pairs
+     */
+    public List<Map.Entry<String, String>> readRange(String from, String to) {
+        RootNode root = this.root();
+
+        // Sections which have not been parsed yet are not indexed
+        root.materialize();
+
+        SortedMap<String, Node> nodes = root.range(from, to);
+        this.reportLookup(from, !nodes.isEmpty());
+
+        return values(nodes, 0);
+    }
+
+    /**
+     * @param nodes nodes by full path
+     * @param offset length of the prefix to remove from the paths
+     * @return values of the value nodes
+     */
+    static List<Map.Entry<String, String>> values(SortedMap<String, Node> nodes, int offset) {
+        List<Map.Entry<String, String>> result = new ArrayList<>();
+
+        for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+            if (entry.getValue() instanceof LeafNode)
+                result.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey().substring(offset), ((LeafNode) entry.getValue()).getValue()));
+        }
+
+        return result;
     }
 
     /**
      * Set a value for a key.
      * If the path is not present, it will create all required Nodes
-     * {@link MvmlParser#createNodePath(Node, String)}
+     * {@link MvmlParser#createNodePath(RootNode, String, Deque)}
      *
      * @param key Key
      * @param value Value
      */
     public void set(String key, Object value) {
-        Node root = FILE_BUFFER.get(this.configuration.getFile());
+        this.setValue(key, String.valueOf(value));
+    }
+
+    /**
+     * Set an int value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, int value) {
+        this.setValue(key, Integer.toString(value));
+    }
+
+    /**
+     * Set a long value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, long value) {
+        this.setValue(key, Long.toString(value));
+    }
+
+    /**
+     * Set a float value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, float value) {
+        this.setValue(key, Float.toString(value));
+    }
+
+    /**
+     * Set a double value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, double value) {
+        this.setValue(key, Double.toString(value));
+    }
+
+    /**
+     * Set a boolean value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, boolean value) {
+        this.setValue(key, value ? "true" : "false");
+    }
+
+    /**
+     * Set a char value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void set(String key, char value) {
+        this.setValue(key, String.valueOf(value));
+    }
+
+    /**
+     * Apply multiple changes at once.
+     * All changes are published together and at most one save is scheduled.
+     * If a change fails, none of the changes are applied
+     *
+     * @param transaction records the changes
+     */
+    public void update(Consumer<MvmlTransaction> transaction) {
+        MvmlTransaction changes = new MvmlTransaction(this);
+        transaction.accept(changes);
+
+        if (changes.isEmpty())
+            return;
+
+        this.write(current -> {
+            // Published snapshots are never modified, thus a failing change only discards the copy
+            if (this.configuration.isConcurrent()) {
+                RootNode root = current.copy();
+                changes.apply(root, null);
+                return root;
+            }
+
+            Deque<Runnable> undo = new ArrayDeque<>();
+            int revision = current.getRevision();
+            int firstChange = current.getFirstChange();
+
+            try {
+                changes.apply(current, undo);
+            } catch (RuntimeException | Error exception) {
+                // Undo the changes which have been applied before in reverse order
+                undo.forEach(Runnable::run);
+                current.restore(revision, firstChange);
+                throw exception;
+            }
+
+            return current;
+        });
+
+        changes.getKeys().forEach(this::reportSet);
+        this.changed();
+    }
+
+    private void setValue(String key, String value) {
+        this.write(current -> {
+            RootNode root = this.modifiable(current);
+            this.set(root, key, value);
+            return root;
+        });
+
+        this.reportSet(key);
+        this.changed();
+    }
+
+    /**
+     * Report a lookup to the listener
+     *
+     * @param key key, first key of a range or an empty key for the whole tree
+     * @param found false if the key is not present
+     */
+    void reportLookup(String key, boolean found) {
+        MvmlListener listener = this.configuration.getListener();
 
-        Node child = createNodePath(root, key);
+        if (listener != null)
+            listener.onLookup(this.configuration.getFile(), key, found);
+    }
+
+    /**
+     * Report a value to the listener once it has been set
+     *
+     * @param key key
+     */
+    void reportSet(String key) {
+        MvmlListener listener = this.configuration.getListener();
+
+        if (listener != null)
+            listener.onSet(this.configuration.getFile(), key);
+    }
+
+    void set(RootNode root, String key, String value) {
+        this.set(root, key, value, null);
+    }
+
+    /**
+     * @param undo receives the inverse of every modification, null if the change does not have to be undone
+     */
+    void set(RootNode root, String key, String value, Deque<Runnable> undo) {
+        Node child = createNodePath(root, key, undo);
 
         if (!(child instanceof LeafNode))
             throw new RuntimeException("Node is not final: " + child.getKey());
 
-        ((LeafNode) child).setValue(String.valueOf(value));
+        LeafNode node = (LeafNode) child;
+        String previous = node.getValue();
+
+        this.update(root, node, value);
+
+        if (undo != null)
+            undo.push(() -> node.setValue(previous));
     }
 
     /**
-     * Recursive method to get all keys of a (sub-)tree
+     * Change the value of a node and keep track of the changed line
      *
-     * @param node parent Node
-     * @param prefix current key path
-     * @return list of keys
+     * @param root root of the node
+     * @param node node
+     * @param value new value
      */
-    private List<String> toString(Node node, String prefix) {
-        LinkedList<String> list = new LinkedList<>();
+    void update(RootNode root, LeafNode node, String value) {
+        if (value.equals(node.getValue()))
+            return;
 
-        if (node instanceof TextNode)
-            list.add(node.toData());
-        else if (!(node instanceof RootNode))
-            list.add(prefix + node.toData());
+        node.setValue(value);
+        root.markChanged(node.getLine());
+    }
 
-        for (Node child : node.getChildren()) {
-            StringBuilder indents = new StringBuilder();
+    /**
+     * @return true if there are changes in memory which have not been saved
+     */
+    public boolean isDirty() {
+        return this.root().isDirty();
+    }
 
-            for (int i = 0; i < this.configuration.getSpaces(); i++)
-                indents.append(" ");
+    /**
+     * Stream the file as it would be saved
+     *
+     * @param writer target, which is neither flushed nor closed
+     * @throws IOException if the writer fails
+     */
+    public void writeTo(Writer writer) throws IOException {
+        new TreeWriter(writer, System.lineSeparator(), this.configuration.getSpaces(), false).write(this.root(), 0);
+    }
 
-            list.addAll(toString(child, prefix + (node instanceof RootNode ? "" : indents)));
-        }
+    /**
+     * Stream the file as it would be saved, encoded as UTF-8
+     *
+     * @param outputStream target, which is flushed but not closed
+     * @throws IOException if the stream fails
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
 
-        return list;
+        this.writeTo(writer);
+        writer.flush();
     }
 
     /**
-     * Overwrite the file on disc with information stored in memory
+     * Overwrite the file on disc with information stored in memory.
+     * Nothing is written if neither the memory nor the file have changed since the last read or save.
+     * Otherwise, only the lines starting at the first change are rewritten
      */
-    @SneakyThrows
     public void save() {
-        Node root = FILE_BUFFER.get(this.configuration.getFile());
+        MvmlListener listener = this.configuration.getListener();
+        long start = listener == null ? 0 : System.nanoTime();
+        long[] written = new long[1];
+
+        this.write(root -> {
+            File file = this.configuration.getFile();
+            boolean unchanged = root.isSynchronized(file);
+
+            if (unchanged && !root.isDirty())
+                return root;
+
+            // Unparsed sections might be read from the file which is about to be overwritten
+            root.materialize();
+
+            int revision = root.getRevision();
+
+            int from = root.getFirstChange();
+
+            writeFile: {
+                if (this.configuration.isAtomicSave()) {
+                    FileUtilities.writeFileAtomically(file, this.content(root, 0, written), this.configuration.isSyncOnSave());
+                    break writeFile;
+                }
 
-        List<String> lines = new ArrayList<>(toString(root, ""));
+                boolean partial = unchanged && FileUtilities.writeFile(file, from, this.content(root, from, written));
 
-        FileUtilities.writeFile(this.configuration.getFile(), lines);
+                if (!partial)
+                    FileUtilities.writeFile(file, this.content(root, 0, written));
+
+                if (this.configuration.isSyncOnSave())
+                    FileUtilities.sync(file);
+            }
+
+            root.markSynchronized(file, revision);
+            return root;
+        });
+
+        if (listener != null)
+            listener.onOperation(MvmlOperation.SAVE, this.configuration.getFile(), System.nanoTime() - start, written[0]);
+    }
+
+    /**
+     * Content of the file starting at a certain line
+     *
+     * @param root tree
+     * @param from first line to write
+     * @param written receives the amount of written bytes if a listener is configured
+     * @return content
+     */
+    private FileUtilities.Content content(RootNode root, int from, long[] written) {
+        int spaces = this.configuration.getSpaces();
+
+        if (this.configuration.getListener() == null)
+            return (writer, separator) -> new TreeWriter(writer, separator, spaces, true).write(root, from);
+
+        return (writer, separator) -> {
+            CountingWriter counter = new CountingWriter(writer);
+            new TreeWriter(counter, separator, spaces, true).write(root, from);
+
+            written[0] += counter.getBytes();
+        };
+    }
+
+    /**
+     * Save the file in the background.
+     * Saves requested within the write-behind delay are coalesced into a single save.
+     * If write-behind is enabled, every change schedules a save
+     *
+     * @return future which completes once the file has been written
+     */
+    public CompletableFuture<Void> saveAsync() {
+        synchronized (this.saveLock) {
+            if (this.pendingSave != null)
+                return this.pendingSave;
+
+            // The save would parse the remaining sections and index them while they are read
+            if (this.root().isLazy()) {
+                this.write(root -> {
+                    root.materialize();
+                    return root;
+                });
+            }
+
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            this.pendingSave = future;
+
+            // Writers take the lock of the file until the save has finished
+            this.backgroundSaves.incrementAndGet();
+
+            WRITE_BEHIND.schedule(() -> {
+                // Changes from now on require another save
+                synchronized (this.saveLock) {
+                    this.pendingSave = null;
+                }
+
+                try {
+                    this.save();
+                    future.complete(null);
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                } finally {
+                    this.backgroundSaves.decrementAndGet();
+                }
+            }, Math.max(this.configuration.getWriteBehindDelay(), 0), TimeUnit.MILLISECONDS);
+
+            return future;
+        }
     }
 
     /**
      * Overwrite the memory with information stored on disc
      */
-    @SneakyThrows
     public void read() {
-        this.parseFile();
+        this.write(root -> this.parse());
+    }
+
+    /**
+     * Watch the file and reload it whenever it has been modified by someone else
+     *
+     * @return watcher which has to be closed to stop watching
+     * @throws IOException if the file cannot be watched
+     */
+    public MvmlWatcher watch() throws IOException {
+        return new MvmlWatcher(this);
     }
 
     /**
@@ -332,54 +1022,35 @@ public class MvmlParser {
      * It will attempt to re-read the file and override the values with the old values.
      * New keys will not be overwritten
      *
+     * @return keys which have been added, removed or overridden
      * @throws IOException if something happens while parsing
      */
-    public void migrate() throws IOException {
-        List<Map.Entry<String, String>> entries = this.readAll();
-
-        this.parseFile();
+    public MigrationReport migrate() throws IOException {
+        MvmlListener listener = this.configuration.getListener();
+        long start = listener == null ? 0 : System.nanoTime();
 
-        entries.forEach(entry -> {
-            set(entry.getKey(), entry.getValue());
-        });
-    }
+        MigrationReport[] report = new MigrationReport[1];
 
-    private Object convert(Class<?> type, String name) {
-        if (name.equals("null"))
-            return null;
+        this.write(current -> {
+            RootNode root = this.parse();
 
-        try {
-            if (type.equals(List.class)) {
-                String data = name.replaceAll("^\\[|]$", "");
+            report[0] = new TreeMerger(root).merge(current);
+            return root;
+        });
 
-                if (data.isEmpty())
-                    return new ArrayList<>();
+        if (listener != null)
+            listener.onOperation(MvmlOperation.MIGRATE, this.configuration.getFile(), System.nanoTime() - start, 0);
 
-                return Arrays.asList(data.split(", "));
-            }
-
-            String className = type.equals(long.class) ? "java.lang.Long" : type.equals(int.class) ? "java.lang.Integer" : type.equals(double.class) ? "java.lang.Double" : type.equals(float.class) ? "java.lang.Float" : type.equals(byte.class) ? "java.lang.Byte" : type.equals(boolean.class) ? "java.lang.Boolean" : type.equals(short.class) ? "java.lang.Short" : type.getName();
-            Method method = Class.forName(className).getMethod("valueOf", String.class);
-            return method.invoke(null, name);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return report[0];
     }
 
-    private boolean isAlphabetic(char c) {
-        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    Object convert(Class<?> type, String name) {
+        return this.configuration.getConverters().convert(type, name);
     }
 
-    private long countIndents(String line) {
-        long indents = 0;
-        for (char c : line.toCharArray()) {
-            if (c != ' ')
-                break;
-
-            indents++;
-        }
-
-        return indents / this.configuration.getSpaces();
+    @FunctionalInterface
+    interface Operation {
+        RootNode apply(RootNode root) throws IOException;
     }
 
-}
\ No newline at end of file
+}
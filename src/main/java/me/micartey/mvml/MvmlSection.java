@@ -0,0 +1,200 @@
+package me.micartey.mvml;
+
+import lombok.Getter;
+import me.micartey.mvml.nodes.LeafNode;
+import me.micartey.mvml.nodes.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * View of the keys below a parent node, keys are relative to the section.
+ * E.g. "size" in the section "db.pools" refers to "db.pools.size"
+ *
+ * @see MvmlParser#section(String)
+ */
+public class MvmlSection {
+
+    private final MvmlParser parser;
+    @Getter private final String key;
+
+    private final String prefix;
+
+    MvmlSection(MvmlParser parser, String key) {
+        this.parser = parser;
+        this.key = key;
+        this.prefix = key + ".";
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key Key relative to this section
+     * @return value (String)
+     */
+    public String get(String key) {
+        return this.parser.get(this.prefix + key);
+    }
+
+    /**
+     * Get the value of a key and convert it to a certain type
+     *
+     * @param key Key relative to this section
+     * @param type object class
+     * @return instance of T
+     * @param <T> object type
+     */
+    public <T> T get(String key, Class<T> type) {
+        return this.parser.get(this.prefix + key, type);
+    }
+
+    /**
+     * @param key Key relative to this section
+     * @return value as int
+     */
+    public int getInt(String key) {
+        return this.parser.getInt(this.prefix + key);
+    }
+
+    /**
+     * @param key Key relative to this section
+     * @return value as long
+     */
+    public long getLong(String key) {
+        return this.parser.getLong(this.prefix + key);
+    }
+
+    /**
+     * @param key Key relative to this section
+     * @return value as double
+     */
+    public double getDouble(String key) {
+        return this.parser.getDouble(this.prefix + key);
+    }
+
+    /**
+     * @param key Key relative to this section
+     * @return value as boolean
+     */
+    public boolean getBoolean(String key) {
+        return this.parser.getBoolean(this.prefix + key);
+    }
+
+    /**
+     * Set a value for a key.
+     * If the path is not present, it will create all required Nodes
+     *
+     * @param key Key relative to this section
+     * @param value Value
+     */
+    public void set(String key, Object value) {
+        this.parser.set(this.prefix + key, value);
+    }
+
+    /**
+     * Delete a node by key
+     *
+     * @param key Key relative to this section
+     */
+    public void remove(String key) {
+        this.parser.remove(this.prefix + key);
+    }
+
+    /**
+     * @param key Key relative to this section
+     * @return compiled key
+     */
+    public MvmlKey compile(String key) {
+        return this.parser.compile(this.prefix + key);
+    }
+
+    /**
+     * @param key Key of a parent node relative to this section
+     * @return section below this section
+     */
+    public MvmlSection section(String key) {
+        return new MvmlSection(this.parser, this.prefix + key);
+    }
+
+    /**
+     * Create an object from the values of this section
+     *
+     * @param type record or class with a no-argument constructor
+     * @return new object
+     * @param <T> object type
+     * @see MvmlParser#bind(String, Class)
+     */
+    public <T> T bind(Class<T> type) {
+        return this.parser.bind(this.key, type);
+    }
+
+    /**
+     * Set the values of all components or fields of an object in this section
+     *
+     * @param object object
+     * @see MvmlParser#unbind(String, Object)
+     */
+    public void unbind(Object object) {
+        this.parser.unbind(this.key, object);
+    }
+
+    /**
+     * @param key Key relative to this section
+     * @return true if the key is present
+     */
+    public boolean contains(String key) {
+        boolean present = this.parser.root().lookup(this.prefix + key) != null;
+        this.parser.reportLookup(this.prefix + key, present);
+
+        return present;
+    }
+
+    /**
+     * @return true if the parent node of this section is present
+     */
+    public boolean isPresent() {
+        boolean present = this.parser.root().lookup(this.key) != null;
+        this.parser.reportLookup(this.key, present);
+
+        return present;
+    }
+
+    /**
+     * Get the keys of all values below this section, ordered by their keys
+     *
+     * @return keys relative to this section
+     */
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>();
+
+        for (Map.Entry<String, Node> entry : this.subtree().entrySet()) {
+            if (entry.getValue() instanceof LeafNode)
+                keys.add(entry.getKey().substring(this.prefix.length()));
+        }
+
+        return keys;
+    }
+
+    /**
+     * Get all key and values below this section as pairs, ordered by their keys
+     *
+     * @return list of pairs with keys relative to this section
+     */
+    public List<Map.Entry<String, String>> readAll() {
+        return MvmlParser.values(this.subtree(), this.prefix.length());
+    }
+
+    private SortedMap<String, Node> subtree() {
+        SortedMap<String, Node> nodes = this.parser.root().subtree(this.key);
+        this.parser.reportLookup(this.key, !nodes.isEmpty());
+
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return this.key;
+    }
+}
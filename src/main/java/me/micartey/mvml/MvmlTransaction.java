@@ -0,0 +1,142 @@
+package me.micartey.mvml;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import me.micartey.mvml.nodes.RootNode;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Changes which are applied to the tree at once.
+ * Changes are recorded first and applied under a single write lock, readers either see none or all of them
+ *
+ * @see MvmlParser#update(Consumer)
+ */
+public class MvmlTransaction {
+
+    private final MvmlParser parser;
+    private final List<BiConsumer<RootNode, Deque<Runnable>>> changes = new ArrayList<>();
+
+    /**
+     * Keys of the recorded values, reported to the listener once the changes have been applied
+     */
+    @Getter(AccessLevel.PACKAGE) private final List<String> keys = new ArrayList<>();
+
+    MvmlTransaction(MvmlParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Set a value for a key.
+     * If the path is not present, it will create all required Nodes
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, Object value) {
+        return this.setValue(key, String.valueOf(value));
+    }
+
+    /**
+     * Set an int value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, int value) {
+        return this.setValue(key, Integer.toString(value));
+    }
+
+    /**
+     * Set a long value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, long value) {
+        return this.setValue(key, Long.toString(value));
+    }
+
+    /**
+     * Set a float value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, float value) {
+        return this.setValue(key, Float.toString(value));
+    }
+
+    /**
+     * Set a double value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, double value) {
+        return this.setValue(key, Double.toString(value));
+    }
+
+    /**
+     * Set a boolean value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, boolean value) {
+        return this.setValue(key, value ? "true" : "false");
+    }
+
+    /**
+     * Set a char value for a key without boxing it
+     *
+     * @param key Key
+     * @param value Value
+     * @return this
+     */
+    public MvmlTransaction set(String key, char value) {
+        return this.setValue(key, String.valueOf(value));
+    }
+
+    /**
+     * Remove a key and all of its children
+     *
+     * @param key Key
+     * @return this
+     */
+    public MvmlTransaction remove(String key) {
+        this.changes.add((root, undo) -> this.parser.remove(root, key, undo));
+        return this;
+    }
+
+    private MvmlTransaction setValue(String key, String value) {
+        this.changes.add((root, undo) -> this.parser.set(root, key, value, undo));
+        this.keys.add(key);
+        return this;
+    }
+
+    boolean isEmpty() {
+        return this.changes.isEmpty();
+    }
+
+    /**
+     * Apply all recorded changes
+     *
+     * @param root tree to modify
+     * @param undo receives the inverse of every modification, null if the changes do not have to be undone
+     */
+    void apply(RootNode root, Deque<Runnable> undo) {
+        for (BiConsumer<RootNode, Deque<Runnable>> change : this.changes)
+            change.accept(root, undo);
+    }
+}
@@ -0,0 +1,381 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.commons.FileUtilities;
+import me.micartey.mvml.metrics.MvmlListener;
+import me.micartey.mvml.metrics.MvmlOperation;
+import me.micartey.mvml.nodes.LazyNode;
+import me.micartey.mvml.nodes.Node;
+import me.micartey.mvml.nodes.RootNode;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+/**
+ * Reloads the file of a parser when it has been modified by someone else.
+ * Events are debounced and only root level sections whose content changed are parsed again,
+ * the nodes of unchanged sections are reused.
+ * The file is not reloaded while the tree has unsaved changes, the conflict is reported to the error listeners instead.
+ * All watchers share a single {@link WatchService} and thread, directories are registered once
+ */
+public class MvmlWatcher implements Closeable {
+
+    private static final Map<Path, List<MvmlWatcher>> WATCHERS = new ConcurrentHashMap<>();
+    private static final Map<Path, WatchKey> DIRECTORIES = new HashMap<>();
+
+    private static WatchService service;
+
+    private final MvmlParser parser;
+    private final File file;
+    private final Path path;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Exception>> errorListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Root level nodes by digest of their section, valid for {@link #root} at {@link #revision}
+     */
+    private Map<ByteBuffer, Deque<Node>> sections = Collections.emptyMap();
+    private RootNode root;
+    private int revision;
+
+    private volatile boolean closed;
+
+    MvmlWatcher(MvmlParser parser) throws IOException {
+        this.parser = parser;
+        this.file = parser.getConfiguration().getFile().getAbsoluteFile();
+        this.path = this.file.toPath();
+
+        // Writers lock the file from now on, the tree is replaced and indexed from the thread of the watchers
+        parser.watchers.incrementAndGet();
+
+        try {
+            this.index();
+            register(this);
+        } catch (IOException | RuntimeException exception) {
+            parser.watchers.decrementAndGet();
+            throw exception;
+        }
+    }
+
+    /**
+     * @param listener called after the file has been reloaded
+     * @return this
+     */
+    public MvmlWatcher onReload(Runnable listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * @param listener called if the file cannot be reloaded, e.g. because it is not valid
+     * @return this
+     */
+    public MvmlWatcher onError(Consumer<Exception> listener) {
+        this.errorListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Stop watching the file
+     */
+    @Override
+    public void close() {
+        if (this.closed)
+            return;
+
+        this.closed = true;
+
+        unregister(this);
+        this.parser.watchers.decrementAndGet();
+    }
+
+    /**
+     * Reload the file unless the event has been caused by saving the tree
+     */
+    private void reload() {
+        if (this.closed)
+            return;
+
+        Lock lock = this.lock();
+        lock.lock();
+
+        try {
+            RootNode current = this.parser.root();
+
+            if (current.isSynchronized(this.file)) {
+                if (current != this.root || current.getRevision() != this.revision)
+                    this.index(current);
+
+                return;
+            }
+
+            // Reloading would silently discard the changes
+            if (current.isModified())
+                throw new IllegalStateException("File has been modified while there are unsaved changes: " + this.file);
+
+            this.parser.write(this::reload);
+        } catch (Exception exception) {
+            this.errorListeners.forEach(listener -> listener.accept(exception));
+            return;
+        } finally {
+            lock.unlock();
+        }
+
+        this.listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Parse the file again and reuse root level nodes whose section did not change
+     *
+     * @param current current tree
+     * @return new tree
+     * @throws IOException if the file cannot be read
+     */
+    private RootNode reload(RootNode current) throws IOException {
+        MvmlListener listener = this.parser.getConfiguration().getListener();
+        long start = listener == null ? 0 : System.nanoTime();
+
+        int spaces = this.parser.getConfiguration().getSpaces();
+
+        long length = this.file.length();
+        long lastModified = this.file.lastModified();
+        ByteBuffer buffer = FileUtilities.readBuffer(this.file);
+
+        // Unsaved changes and lines which are not written back as they are cannot be reused
+        boolean reuse = current == this.root && current.getRevision() == this.revision && !current.isDirty();
+
+        TreeBuilder builder = this.parser.builder();
+        Map<ByteBuffer, Deque<Node>> sections = new HashMap<>();
+
+        for (SectionScanner.Section section : SectionScanner.split(buffer, spaces)) {
+            ByteBuffer digest = digest(buffer, section);
+            Node node = reuse && section.isRootLevel() ? this.reusable(digest) : null;
+
+            if (node != null) {
+                // Nodes of the published tree must not change, thus moved sections are copied
+                if (node.getLine() != section.getLine())
+                    node = shift(node.copy(), section.getLine() - node.getLine());
+
+                builder.accept(node, section.getLines());
+            } else {
+                FileUtilities.readLines(buffer, section.getStart(), section.getEnd(), builder::accept);
+            }
+
+            if (section.isRootLevel())
+                sections.computeIfAbsent(digest, key -> new ArrayDeque<>()).addLast(builder.getRoot().getChildren().getLast());
+        }
+
+        RootNode root = builder.build();
+        root.track(length, lastModified);
+
+        this.sections = sections;
+        this.root = root;
+        this.revision = root.getRevision();
+
+        if (listener != null) {
+            listener.onOperation(MvmlOperation.RELOAD, this.file, System.nanoTime() - start, buffer.limit());
+            listener.onParsed(this.file, root.size());
+        }
+
+        return root;
+    }
+
+    /**
+     * Assign the sections of the file to the root level nodes of the current tree.
+     * This is only possible if the tree equals the content of the file
+     *
+     * @throws IOException if the file cannot be read
+     */
+    private void index() throws IOException {
+        Lock lock = this.lock();
+        lock.lock();
+
+        try {
+            this.index(this.parser.root());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(RootNode current) throws IOException {
+        int revision = current.getRevision();
+
+        this.sections = Collections.emptyMap();
+        this.root = null;
+
+        if (current.isDirty() || !current.isSynchronized(this.file))
+            return;
+
+        int spaces = this.parser.getConfiguration().getSpaces();
+        ByteBuffer buffer = FileUtilities.readBuffer(this.file);
+
+        Map<ByteBuffer, Deque<Node>> sections = new HashMap<>();
+        Iterator<Node> children = current.getChildren().iterator();
+
+        // Every root level line is exactly one child of the root
+        for (SectionScanner.Section section : SectionScanner.split(buffer, spaces)) {
+            if (!section.isRootLevel())
+                continue;
+
+            if (!children.hasNext())
+                return;
+
+            sections.computeIfAbsent(digest(buffer, section), key -> new ArrayDeque<>()).addLast(children.next());
+        }
+
+        if (children.hasNext() || current.getRevision() != revision || !current.isSynchronized(this.file))
+            return;
+
+        this.sections = sections;
+        this.root = current;
+        this.revision = revision;
+    }
+
+    private Node reusable(ByteBuffer digest) {
+        Deque<Node> nodes = this.sections.get(digest);
+        Node node = nodes == null ? null : nodes.pollFirst();
+
+        // Unloaded sections refer to the content they have been split from
+        if (node instanceof LazyNode && !((LazyNode) node).isLoaded())
+            return null;
+
+        return node;
+    }
+
+    /**
+     * @return lock which serializes the writers of the file
+     */
+    private Lock lock() {
+        return this.parser.getConfiguration().getBuffer().lock(this.parser.getConfiguration().getFile());
+    }
+
+    private static Node shift(Node node, int lines) {
+        node.setLine(node.getLine() + lines);
+
+        for (Node child : node.getChildren())
+            shift(child, lines);
+
+        return node;
+    }
+
+    private static ByteBuffer digest(ByteBuffer buffer, SectionScanner.Section section) {
+        ByteBuffer content = buffer.duplicate();
+        content.limit(section.getEnd());
+        content.position(section.getStart());
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content);
+            return ByteBuffer.wrap(digest.digest());
+        } catch (NoSuchAlgorithmException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static synchronized void register(MvmlWatcher watcher) throws IOException {
+        if (service == null) {
+            service = FileSystems.getDefault().newWatchService();
+
+            Thread thread = new Thread(MvmlWatcher::run, "mvml-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Path directory = watcher.path.getParent();
+
+        if (!DIRECTORIES.containsKey(directory))
+            DIRECTORIES.put(directory, directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+
+        WATCHERS.computeIfAbsent(watcher.path, key -> new CopyOnWriteArrayList<>()).add(watcher);
+    }
+
+    private static synchronized void unregister(MvmlWatcher watcher) {
+        List<MvmlWatcher> watchers = WATCHERS.get(watcher.path);
+
+        if (watchers == null || !watchers.remove(watcher))
+            return;
+
+        if (watchers.isEmpty())
+            WATCHERS.remove(watcher.path);
+
+        Path directory = watcher.path.getParent();
+
+        for (Path path : WATCHERS.keySet()) {
+            if (path.getParent().equals(directory))
+                return;
+        }
+
+        DIRECTORIES.remove(directory).cancel();
+    }
+
+    /**
+     * Collect events and reload a file once it has not been modified for {@link MvmlConfiguration#getWatchDelay()}
+     */
+    private static void run() {
+        Map<MvmlWatcher, Long> pending = new HashMap<>();
+
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long next = Long.MAX_VALUE;
+
+                for (Iterator<Map.Entry<MvmlWatcher, Long>> iterator = pending.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<MvmlWatcher, Long> entry = iterator.next();
+
+                    if (entry.getValue() - now <= 0) {
+                        iterator.remove();
+                        entry.getKey().reload();
+                        continue;
+                    }
+
+                    next = Math.min(next, entry.getValue() - now);
+                }
+
+                WatchKey key = pending.isEmpty() ? service.take() : service.poll(next, TimeUnit.NANOSECONDS);
+
+                if (key == null)
+                    continue;
+
+                Path directory = (Path) key.watchable();
+                now = System.nanoTime();
+
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Events have been lost, thus every file of the directory may have changed
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        for (Map.Entry<Path, List<MvmlWatcher>> entry : WATCHERS.entrySet()) {
+                            if (entry.getKey().getParent().equals(directory))
+                                schedule(pending, entry.getValue(), now);
+                        }
+
+                        continue;
+                    }
+
+                    List<MvmlWatcher> watchers = WATCHERS.get(directory.resolve((Path) event.context()));
+
+                    if (watchers != null)
+                        schedule(pending, watchers, now);
+                }
+
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException exception) {
+            // Watching is not possible anymore
+        }
+    }
+
+    private static void schedule(Map<MvmlWatcher, Long> pending, List<MvmlWatcher> watchers, long now) {
+        for (MvmlWatcher watcher : watchers)
+            pending.put(watcher, now + TimeUnit.MILLISECONDS.toNanos(Math.max(watcher.parser.getConfiguration().getWatchDelay(), 0)));
+    }
+}
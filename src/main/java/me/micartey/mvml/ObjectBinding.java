@@ -0,0 +1,246 @@
+package me.micartey.mvml;
+
+import lombok.RequiredArgsConstructor;
+import me.micartey.mvml.converter.ConverterRegistry;
+import me.micartey.mvml.nodes.LeafNode;
+import me.micartey.mvml.nodes.Node;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Accessors of the properties of a class, which are looked up once per class.
+ * Records are created through their canonical constructor, other classes through their
+ * no-argument constructor and their non-final fields
+ */
+class ObjectBinding {
+
+    private static final ClassValue<ObjectBinding> BINDINGS = new ClassValue<ObjectBinding>() {
+        @Override
+        protected ObjectBinding computeValue(Class<?> type) {
+            return new ObjectBinding(type);
+        }
+    };
+
+    private final Map<String, Property> properties = new HashMap<>();
+    private final Property[] ordered;
+
+    private final Class<?> type;
+    private final boolean record;
+    private final MethodHandle constructor;
+
+    /**
+     * Arguments of the canonical constructor for missing record components
+     */
+    private final Object[] defaults;
+
+    private ObjectBinding(Class<?> type) {
+        List<Property> properties = new ArrayList<>();
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            if (type.isRecord()) {
+                RecordComponent[] components = type.getRecordComponents();
+                Class<?>[] types = new Class<?>[components.length];
+
+                for (int index = 0; index < components.length; index++) {
+                    Method accessor = components[index].getAccessor();
+                    accessor.setAccessible(true);
+
+                    types[index] = components[index].getType();
+                    properties.add(new Property(components[index].getName(), types[index], index, getter(lookup.unreflect(accessor)), null));
+                }
+
+                Constructor<?> constructor = type.getDeclaredConstructor(types);
+                constructor.setAccessible(true);
+
+                this.constructor = lookup.unreflectConstructor(constructor)
+                        .asSpreader(Object[].class, types.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } else {
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if ((field.getModifiers() & (Modifier.STATIC | Modifier.TRANSIENT | Modifier.FINAL)) != 0 || field.isSynthetic())
+                            continue;
+
+                        field.setAccessible(true);
+
+                        MethodHandle setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+                        properties.add(new Property(field.getName(), field.getType(), properties.size(), getter(lookup.unreflectGetter(field)), setter));
+                    }
+                }
+
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+
+                this.constructor = lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+            }
+        } catch (ReflectiveOperationException exception) {
+            throw new RuntimeException("Cannot bind " + type.getName(), exception);
+        }
+
+        this.type = type;
+        this.record = type.isRecord();
+        this.ordered = properties.toArray(new Property[0]);
+        this.defaults = new Object[this.ordered.length];
+
+        for (Property property : this.ordered) {
+            // Subclasses shadow fields of their superclasses
+            this.properties.putIfAbsent(property.name, property);
+
+            if (property.type.isPrimitive())
+                this.defaults[property.index] = Array.get(Array.newInstance(property.type, 1), 0);
+        }
+    }
+
+    /**
+     * @param type class to bind
+     * @return cached binding of the class
+     */
+    static ObjectBinding of(Class<?> type) {
+        return BINDINGS.get(type);
+    }
+
+    /**
+     * Create an object from the children of a node in a single pass.
+     * Value nodes are converted, parent nodes are bound to nested objects
+     *
+     * @param node parent node
+     * @param converters converters of the values
+     * @return new object
+     */
+    Object bind(Node node, ConverterRegistry converters) {
+        Object[] values = this.record ? this.defaults.clone() : null;
+        Object instance = this.record ? null : this.create();
+
+        boolean[] assigned = new boolean[this.ordered.length];
+
+        for (Node child : node.getChildren()) {
+            Property property = child.getKey() == null ? null : this.properties.get(child.getKey());
+
+            // Like lookups, the first of multiple nodes with the same key is used
+            if (property == null || assigned[property.index])
+                continue;
+
+            assigned[property.index] = true;
+
+            Object value = child instanceof LeafNode
+                    ? converters.convert(property.type, ((LeafNode) child).getValue())
+                    : of(property.type).bind(child, converters);
+
+            if (value == null && property.type.isPrimitive())
+                throw new RuntimeException("Cannot bind null value of " + child.getKey() + " to primitive " + property.type + " of " + this.type.getName());
+
+            if (this.record)
+                values[property.index] = value;
+            else
+                property.set(instance, value);
+        }
+
+        return this.record ? this.create(values) : instance;
+    }
+
+    /**
+     * Record the values of all properties of an object as changes
+     *
+     * @param object object
+     * @param path key of the section
+     * @param transaction transaction to record the changes in
+     * @param converters converters which define the value types
+     */
+    void unbind(Object object, String path, MvmlTransaction transaction, ConverterRegistry converters) {
+        for (Property property : this.ordered) {
+            // Fields shadowed by a subclass would overwrite the value of the subclass field
+            if (this.properties.get(property.name) != property)
+                continue;
+
+            Object value = property.get(object);
+            Class<?> type = value == null ? property.type : value.getClass();
+            String key = path + "." + property.name;
+
+            if (isValue(type, converters))
+                transaction.set(key, value);
+            else if (value != null)
+                of(type).unbind(value, key, transaction, converters);
+        }
+    }
+
+    private Object create() {
+        try {
+            return (Object) this.constructor.invokeExact();
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    private Object create(Object[] values) {
+        try {
+            return (Object) this.constructor.invokeExact(values);
+        } catch (RuntimeException | Error exception) {
+            throw exception;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
+        }
+    }
+
+    /**
+     * @return true if the type is written as a single value instead of a section
+     */
+    private static boolean isValue(Class<?> type, ConverterRegistry converters) {
+        if (type.isPrimitive() || type.isEnum() || converters.contains(type))
+            return true;
+
+        if (CharSequence.class.isAssignableFrom(type) || Number.class.isAssignableFrom(type) || Collection.class.isAssignableFrom(type))
+            return true;
+
+        if (type == Boolean.class || type == Character.class)
+            return true;
+
+        try {
+            return Modifier.isStatic(type.getMethod("valueOf", String.class).getModifiers());
+        } catch (NoSuchMethodException exception) {
+            return false;
+        }
+    }
+
+    private static MethodHandle getter(MethodHandle handle) {
+        return handle.asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    @RequiredArgsConstructor
+    private static class Property {
+
+        private final String name;
+        private final Class<?> type;
+        private final int index;
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private Object get(Object instance) {
+            try {
+                return (Object) this.getter.invokeExact(instance);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new RuntimeException(throwable);
+            }
+        }
+
+        private void set(Object instance, Object value) {
+            try {
+                this.setter.invokeExact(instance, value);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new RuntimeException(throwable);
+            }
+        }
+    }
+}
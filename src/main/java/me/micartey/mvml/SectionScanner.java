@@ -0,0 +1,177 @@
+package me.micartey.mvml;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits UTF-8 encoded content into sections without decoding it.
+ * Every section starts with a line which is attached to the root node, thus sections can be parsed independently.
+ * The classification of lines mirrors {@link TreeBuilder#accept(String)}
+ */
+class SectionScanner {
+
+    /**
+     * Split content into sections
+     *
+     * @param buffer content, read from its position to its limit
+     * @param spaces spaces per indent
+     * @return sections in order
+     */
+    static List<Section> split(ByteBuffer buffer, int spaces) {
+        List<Section> sections = new ArrayList<>();
+        Section current = null;
+
+        int lines = 0;
+        int limit = buffer.limit();
+        int start = buffer.position();
+
+        while (start < limit) {
+            int end = start;
+
+            while (end < limit && buffer.get(end) != '\n' && buffer.get(end) != '\r')
+                end++;
+
+            int next = end;
+
+            if (next < limit)
+                next += buffer.get(next) == '\r' && next + 1 < limit && buffer.get(next + 1) == '\n' ? 2 : 1;
+
+            boolean rootLevel = isRootLevel(buffer, start, end, spaces);
+
+            if (current == null || rootLevel) {
+                if (current != null)
+                    current.end = start;
+
+                current = new Section(start, lines, rootLevel, isRootParent(buffer, start, end) ? decode(buffer, start, end - 1) : null);
+                current.bodyStart = next;
+                sections.add(current);
+            } else if (isIgnored(buffer, start, end)) {
+                // Ignored lines would shift line numbers of a deferred section
+                current.deferrable = false;
+            }
+
+            current.lines++;
+            lines++;
+            start = next;
+        }
+
+        if (current != null)
+            current.end = limit;
+
+        return sections;
+    }
+
+    /**
+     * @return true if the line will be attached to the root node
+     */
+    private static boolean isRootLevel(ByteBuffer buffer, int start, int end, int spaces) {
+        if (start == end)
+            return false;
+
+        byte first = buffer.get(start);
+
+        if (first == '#')
+            return true;
+
+        if (buffer.get(end - 1) == ':')
+            return isAlphabetic(first);
+
+        boolean separator = false;
+
+        for (int index = start; index < end; index++) {
+            byte current = buffer.get(index);
+
+            if (current == '#')
+                return false;
+
+            separator |= current == ':';
+        }
+
+        if (!separator)
+            return false;
+
+        int indents = 0;
+
+        while (buffer.get(start + indents) == ' ')
+            indents++;
+
+        return indents / spaces == 0;
+    }
+
+    /**
+     * @return true if the line is a parent node attached to the root node
+     */
+    private static boolean isRootParent(ByteBuffer buffer, int start, int end) {
+        return start != end && isAlphabetic(buffer.get(start)) && buffer.get(end - 1) == ':';
+    }
+
+    /**
+     * @return true if the line is a parent node without any key, which is not part of the tree
+     */
+    private static boolean isIgnored(ByteBuffer buffer, int start, int end) {
+        if (start == end || buffer.get(end - 1) != ':')
+            return false;
+
+        for (int index = start; index < end; index++) {
+            if (isAlphabetic(buffer.get(index)))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static String decode(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+
+        for (int index = 0; index < bytes.length; index++)
+            bytes[index] = buffer.get(start + index);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isAlphabetic(byte c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static class Section {
+
+        /**
+         * Byte offset of the first line
+         */
+        private final int start;
+
+        /**
+         * Line number of the first line
+         */
+        private final int line;
+
+        /**
+         * True if the first line is attached to the root node
+         */
+        private final boolean rootLevel;
+
+        /**
+         * Key if the first line is a parent node, null otherwise
+         */
+        private final String key;
+
+        private int bodyStart;
+        private int end;
+        private int lines;
+        private boolean deferrable = true;
+
+        /**
+         * @return true if the children of this section can be parsed later on
+         */
+        boolean isDeferrable() {
+            return this.deferrable && this.key != null && this.lines > 1;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.commons.FileUtilities;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parses a range of sections, splitting it in half until a range is small enough to be parsed by a single thread.
+ * Every section starts with a line attached to the root, thus ranges can be parsed independently
+ * and the builders of the ranges are attached in order afterwards
+ *
+ * @see SectionScanner
+ */
+class SectionTask extends RecursiveTask<List<TreeBuilder>> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Ranges up to this amount of bytes are not split any further
+     */
+    private static final int THRESHOLD = 64 * 1024;
+
+    private final ByteBuffer buffer;
+    private final List<SectionScanner.Section> sections;
+    private final int spaces;
+    private final StringPool pool;
+
+    private SectionTask(ByteBuffer buffer, List<SectionScanner.Section> sections, int spaces, StringPool pool) {
+        this.buffer = buffer;
+        this.sections = sections;
+        this.spaces = spaces;
+        this.pool = pool;
+    }
+
+    /**
+     * Parse content on the common {@link ForkJoinPool}.
+     * Content which does not start with a line attached to the root is parsed line by line
+     *
+     * @param builder builder to attach the parsed lines to
+     * @param buffer content, read from its position to its limit
+     * @param spaces spaces per indent
+     * @param pool pool shared with other trees or null
+     */
+    static void parse(TreeBuilder builder, ByteBuffer buffer, int spaces, StringPool pool) {
+        List<SectionScanner.Section> sections = SectionScanner.split(buffer, spaces);
+
+        if (sections.size() < 2 || !sections.get(0).isRootLevel() || buffer.remaining() <= THRESHOLD) {
+            FileUtilities.readLines(buffer, builder::accept);
+            return;
+        }
+
+        for (TreeBuilder section : ForkJoinPool.commonPool().invoke(new SectionTask(buffer, sections, spaces, pool)))
+            builder.accept(section);
+    }
+
+    @Override
+    protected List<TreeBuilder> compute() {
+        SectionScanner.Section first = this.sections.get(0);
+        SectionScanner.Section last = this.sections.get(this.sections.size() - 1);
+
+        if (this.sections.size() == 1 || last.getEnd() - first.getStart() <= THRESHOLD) {
+            TreeBuilder builder = new TreeBuilder(this.spaces, first.getLine()).setPool(this.pool);
+            FileUtilities.readLines(this.buffer, first.getStart(), last.getEnd(), builder::accept);
+
+            builder.finish();
+            return Collections.singletonList(builder);
+        }
+
+        int middle = this.sections.size() / 2;
+
+        SectionTask left = new SectionTask(this.buffer, this.sections.subList(0, middle), this.spaces, this.pool);
+        SectionTask right = new SectionTask(this.buffer, this.sections.subList(middle, this.sections.size()), this.spaces, this.pool);
+
+        invokeAll(left, right);
+
+        List<TreeBuilder> builders = new ArrayList<>(left.join());
+        builders.addAll(right.join());
+
+        return builders;
+    }
+}
@@ -0,0 +1,135 @@
+package me.micartey.mvml;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Weak pool of keys and short values which are shared by all trees parsed into the same {@link FileBuffer}.
+ * Pooled strings are released once no tree uses them anymore
+ */
+public class StringPool {
+
+    private static final int STRIPES = 16;
+
+    /**
+     * Longer values are rarely repeated, thus pooling them would cost more than it saves
+     */
+    private final int maximumValueLength;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Map<String, WeakReference<String>>[] stripes = new Map[STRIPES];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+
+    public StringPool() {
+        this(32);
+    }
+
+    /**
+     * @param maximumValueLength values up to this length are pooled, keys are always pooled
+     */
+    public StringPool(int maximumValueLength) {
+        this.maximumValueLength = maximumValueLength;
+
+        for (int index = 0; index < STRIPES; index++)
+            this.stripes[index] = new WeakHashMap<>();
+    }
+
+    /**
+     * @param string string
+     * @return pooled instance which equals the string
+     */
+    public String intern(String string) {
+        Map<String, WeakReference<String>> stripe = this.stripe(string);
+
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(string);
+            String pooled = reference == null ? null : reference.get();
+
+            if (pooled != null) {
+                this.hits.increment();
+                this.saved.add(sizeOf(string));
+                return pooled;
+            }
+
+            stripe.put(string, new WeakReference<>(string));
+            return string;
+        }
+    }
+
+    /**
+     * @param value value
+     * @return pooled instance which equals the value or the value itself if it is too long to be pooled
+     */
+    public String internValue(String value) {
+        return value.length() > this.maximumValueLength ? value : this.intern(value);
+    }
+
+    /**
+     * @param string string
+     * @return true if this exact instance is pooled
+     */
+    public boolean isPooled(String string) {
+        Map<String, WeakReference<String>> stripe = this.stripe(string);
+
+        synchronized (stripe) {
+            WeakReference<String> reference = stripe.get(string);
+            return reference != null && reference.get() == string;
+        }
+    }
+
+    /**
+     * @return amount of pooled strings
+     */
+    public int size() {
+        int size = 0;
+
+        for (Map<String, WeakReference<String>> stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * @return amount of strings which have been replaced by a pooled instance
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return estimated bytes of all strings which have been replaced by a pooled instance
+     */
+    public long getSavedBytes() {
+        return this.saved.sum();
+    }
+
+    private Map<String, WeakReference<String>> stripe(String string) {
+        int hash = string.hashCode();
+        return this.stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * Estimate the retained size of a string with compressed references and one byte per character
+     *
+     * @param string string
+     * @return bytes
+     */
+    static long sizeOf(String string) {
+        return sizeOf(string.length());
+    }
+
+    static long sizeOf(int length) {
+        return 24 + align(16 + length);
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,314 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.nodes.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single pass parser which builds the node tree line by line.
+ * The rightmost path of the tree (root, its last child, the last child of that, ...)
+ * is kept on a stack, so every line is attached without walking down from the root
+ */
+class TreeBuilder {
+
+    private final int spaces;
+    private final RootNode root;
+
+    /**
+     * spine[0] is the root and spine[i + 1] the last child of spine[i]
+     */
+    private Node[] spine = new Node[16];
+    private int depth;
+
+    private int lines;
+
+    private final Map<String, String> keys = new HashMap<>();
+
+    /**
+     * Pool shared with other trees, null to only share keys within this tree
+     */
+    private StringPool pool;
+
+    TreeBuilder(int spaces) {
+        this.spaces = spaces;
+        this.root = new RootNode();
+        this.spine[0] = this.root;
+    }
+
+    /**
+     * Create a builder for the children of a node attached to the root
+     *
+     * @param spaces spaces per indent
+     * @param root root which keeps track of changed lines
+     * @param parent node to attach lines to
+     * @param line line number of the first line
+     */
+    TreeBuilder(int spaces, RootNode root, Node parent, int line) {
+        this.spaces = spaces;
+        this.root = root;
+        this.spine[0] = root;
+        this.spine[1] = parent;
+        this.depth = 1;
+        this.lines = line;
+    }
+
+    /**
+     * Create a builder for a range of lines which starts with a line attached to the root
+     *
+     * @param spaces spaces per indent
+     * @param line line number of the first line
+     */
+    TreeBuilder(int spaces, int line) {
+        this(spaces);
+        this.lines = line;
+    }
+
+    /**
+     * @param pool pool shared with other trees or null
+     * @return this
+     */
+    TreeBuilder setPool(StringPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Attach a node whose lines have been parsed elsewhere to the root
+     *
+     * @param node node
+     * @param lines amount of lines of the node and its children
+     */
+    void accept(Node node, int lines) {
+        node.setLine(this.lines);
+
+        this.root.getChildren().addLast(node);
+
+        for (int index = 1; index <= this.depth; index++)
+            this.complete(index);
+
+        this.spine[1] = node;
+        this.depth = 1;
+
+        this.lines += lines;
+    }
+
+    /**
+     * Attach the root level nodes which another builder has built from the following lines
+     *
+     * @param builder finished builder which started at the current line
+     */
+    void accept(TreeBuilder builder) {
+        RootNode tree = builder.root;
+
+        if (tree.isDirty())
+            this.root.markChanged(tree.getFirstChange());
+
+        for (Node node : tree.getChildren()) {
+            this.root.getChildren().addLast(node);
+
+            for (int index = 1; index <= this.depth; index++)
+                this.complete(index);
+
+            this.spine[1] = node;
+            this.depth = 1;
+        }
+
+        this.lines = builder.lines;
+    }
+
+    /**
+     * Parse a line and attach the resulting node to the tree
+     *
+     * @param line line without line separator
+     */
+    void accept(String line) {
+        this.lines++;
+
+        /*
+         * Root comments
+         */
+        if (line.startsWith("#")) {
+            this.append(0, new TextNode(line), line);
+            return;
+        }
+
+        /*
+         * Empty lines
+         */
+        if (line.isEmpty()) {
+            this.append(Math.max(this.depth, 1), new TextNode(line), line);
+            return;
+        }
+
+        /*
+         * Parent node
+         */
+        if (line.endsWith(":")) {
+            int index = 0;
+
+            while (index < line.length() && !isAlphabetic(line.charAt(index)))
+                index++;
+
+            // Lines without any key are ignored and will be missing once written
+            if (index == line.length()) {
+                this.root.markChanged(this.lines - 1);
+                return;
+            }
+
+            ParentNode node = new ParentNode(this.pool(line.substring(index, line.length() - 1)));
+            this.append(index == 0 ? 0 : Math.max(index / this.spaces, 1), node, line);
+            return;
+        }
+
+        /*
+         * Comments with indents
+         */
+        if (line.indexOf('#') != -1) {
+            this.append(Math.max(this.countIndents(line), 1), new TextNode(line), line);
+            return;
+        }
+
+        /*
+         * Value nodes
+         */
+        int index = line.indexOf(':');
+
+        if (index != -1) {
+            String key = line.substring(0, index).trim();
+            String value = line.substring(index + 1).trim();
+
+            this.append(this.countIndents(line), new LeafNode(this.pool(key), this.pool == null ? value : this.pool.internValue(value)), line);
+            return;
+        }
+
+        throw new RuntimeException("No implemention found for: " + line);
+    }
+
+    /**
+     * Add a node as last child of the node at a certain level of the rightmost path
+     *
+     * @param level level of the parent
+     * @param node new node
+     * @param line line of the node
+     */
+    private void append(int level, Node node, String line) {
+        if (level > this.depth)
+            throw new RuntimeException("No parent node found for: " + line);
+
+        this.spine[level].getChildren().addLast(node);
+
+        node.setLine(this.lines - 1);
+
+        if (!this.isCanonical(level, node, line))
+            this.root.markChanged(this.lines - 1);
+
+        if (level + 1 == this.spine.length)
+            this.spine = Arrays.copyOf(this.spine, this.spine.length * 2);
+
+        // Deeper nodes are no longer on the rightmost path
+        for (int index = level + 1; index <= this.depth; index++)
+            this.complete(index);
+
+        this.spine[level + 1] = node;
+        this.depth = level + 1;
+    }
+
+    /**
+     * Check if a line is exactly what will be written for its node
+     *
+     * @param level level of the parent
+     * @param node parsed node
+     * @param line line of the node
+     * @return true if the line will be written unchanged
+     */
+    private boolean isCanonical(int level, Node node, String line) {
+        // Text is written as it is
+        if (node instanceof TextNode)
+            return true;
+
+        int indent = level * this.spaces;
+        String key = node.getKey();
+
+        for (int index = 0; index < indent; index++) {
+            if (index == line.length() || line.charAt(index) != ' ')
+                return false;
+        }
+
+        if (!line.startsWith(key, indent))
+            return false;
+
+        if (node instanceof ParentNode)
+            return line.length() == indent + key.length() + 1;
+
+        String value = ((LeafNode) node).getValue();
+
+        return line.length() == indent + key.length() + 2 + value.length()
+                && line.startsWith(": ", indent + key.length())
+                && line.endsWith(value);
+    }
+
+    /**
+     * @return tree which is being built
+     */
+    RootNode getRoot() {
+        return this.root;
+    }
+
+    /**
+     * @return parsed tree with an up-to-date index
+     */
+    RootNode build() {
+        this.finish().reindex();
+        return this.root;
+    }
+
+    /**
+     * @return parsed tree without an index
+     */
+    RootNode finish() {
+        for (int index = this.depth; index >= 0; index--)
+            this.complete(index);
+
+        this.depth = 0;
+        return this.root;
+    }
+
+    /**
+     * Remove a node from the rightmost path, no more children will be added to it
+     *
+     * @param level level of the node
+     */
+    private void complete(int level) {
+        this.spine[level].trimChildren();
+        this.spine[level] = null;
+    }
+
+    /**
+     * Keys are repeated in large documents, e.g. in every entry of a list of sections
+     *
+     * @param key key
+     * @return previous instance of an equal key
+     */
+    private String pool(String key) {
+        if (this.pool != null)
+            return this.pool.intern(key);
+
+        String pooled = this.keys.putIfAbsent(key, key);
+        return pooled == null ? key : pooled;
+    }
+
+    private int countIndents(String line) {
+        int indents = 0;
+
+        while (indents < line.length() && line.charAt(indents) == ' ')
+            indents++;
+
+        return indents / this.spaces;
+    }
+
+    private static boolean isAlphabetic(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+}
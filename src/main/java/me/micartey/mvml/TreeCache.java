@@ -0,0 +1,212 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.nodes.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary cache of a parsed tree, stored next to the file (e.g. "config.yml.mvmlc").
+ * The cache is only used if size, modification time and content hash of the file are unchanged
+ */
+class TreeCache {
+
+    private static final int MAGIC = 0x4D564D43;
+    private static final int VERSION = 1;
+
+    private static final byte TEXT = 0;
+    private static final byte PARENT = 1;
+    private static final byte LEAF = 2;
+
+    /**
+     * Smallest amount of bytes a node takes in the cache: type, line, null key and no children
+     */
+    private static final int MINIMUM_NODE = 1 + 4 + 4 + 4;
+
+    /**
+     * @param file configuration file
+     * @return cache file of the configuration file
+     */
+    static File cacheFile(File file) {
+        return new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".mvmlc");
+    }
+
+    /**
+     * Read a tree from the cache
+     *
+     * @param file configuration file
+     * @param spaces spaces per indent the tree has been parsed with
+     * @param pool pool for keys and values or null
+     * @return tree or null if there is no valid cache
+     */
+    static RootNode read(File file, int spaces, StringPool pool) {
+        File cache = cacheFile(file);
+
+        if (!cache.exists() || !file.exists())
+            return null;
+
+        long length = file.length();
+        long lastModified = file.lastModified();
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || input.readInt() != spaces)
+                return null;
+
+            if (input.readLong() != length || input.readLong() != lastModified || input.readLong() != hash(file))
+                return null;
+
+            RootNode root = new RootNode();
+            root.markChanged(input.readInt());
+
+            readChildren(input, root, pool, cache.length());
+
+            root.reindex();
+            root.track(length, lastModified);
+            return root;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Write a tree to the cache. Failing to write the cache is not an error
+     *
+     * @param file configuration file
+     * @param root tree parsed from the file
+     * @param spaces spaces per indent the tree has been parsed with
+     * @param length length of the file when it was parsed
+     * @param lastModified modification time of the file when it was parsed
+     */
+    static void write(File file, RootNode root, int spaces, long length, long lastModified) {
+        File cache = cacheFile(file);
+        File temp = new File(cache.getParentFile(), cache.getName() + ".tmp");
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(spaces);
+
+                output.writeLong(length);
+                output.writeLong(lastModified);
+                output.writeLong(hash(file));
+
+                output.writeInt(root.getFirstChange());
+
+                writeChildren(output, root);
+            }
+
+            Files.move(temp.toPath(), cache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Lengths and counts are checked against the size of the cache, so a corrupt cache is a cache miss
+     * instead of an attempt to allocate gigabytes
+     */
+    private static void readChildren(DataInputStream input, Node parent, StringPool pool, long size) throws IOException {
+        int children = input.readInt();
+
+        if (children < 0 || children > size / MINIMUM_NODE)
+            throw new IOException("Invalid amount of children: " + children);
+
+        for (int index = 0; index < children; index++) {
+            byte type = input.readByte();
+            Node node;
+
+            switch (type) {
+                case TEXT:
+                    node = new TextNode(readString(input, size));
+                    break;
+                case PARENT:
+                    node = new ParentNode(intern(pool, readString(input, size)));
+                    break;
+                case LEAF:
+                    String key = intern(pool, readString(input, size));
+                    String value = readString(input, size);
+
+                    node = new LeafNode(key, pool == null || value == null ? value : pool.internValue(value));
+                    break;
+                default:
+                    throw new IOException("Unknown node type: " + type);
+            }
+
+            node.setLine(input.readInt());
+            parent.getChildren().addLast(node);
+
+            readChildren(input, node, pool, size);
+        }
+    }
+
+    private static String intern(StringPool pool, String key) {
+        return pool == null || key == null ? key : pool.intern(key);
+    }
+
+    private static void writeChildren(DataOutputStream output, Node parent) throws IOException {
+        output.writeInt(parent.getChildren().size());
+
+        for (Node node : parent.getChildren()) {
+            if (node instanceof TextNode) {
+                output.writeByte(TEXT);
+                writeString(output, node.toData());
+            } else if (node instanceof LeafNode) {
+                output.writeByte(LEAF);
+                writeString(output, node.getKey());
+                writeString(output, ((LeafNode) node).getValue());
+            } else {
+                output.writeByte(PARENT);
+                writeString(output, node.getKey());
+            }
+
+            output.writeInt(node.getLine());
+
+            writeChildren(output, node);
+        }
+    }
+
+    private static String readString(DataInputStream input, long size) throws IOException {
+        int length = input.readInt();
+
+        if (length == -1)
+            return null;
+
+        if (length < -1 || length > size)
+            throw new IOException("Invalid length: " + length);
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static long hash(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+
+        try (InputStream input = new FileInputStream(file)) {
+            int read;
+
+            while ((read = input.read(buffer)) != -1)
+                crc.update(buffer, 0, read);
+        }
+
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,138 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.nodes.*;
+
+import java.util.*;
+
+/**
+ * Merges the values of a previous tree into a new tree by walking both trees in lockstep.
+ * Children are matched by key on every level, thus every node is visited once.
+ * Comments of the new tree are kept, comments of the previous tree are dropped
+ */
+class TreeMerger {
+
+    private final RootNode root;
+    private final MigrationReport report = new MigrationReport();
+
+    /**
+     * @param root new tree which will be modified
+     */
+    TreeMerger(RootNode root) {
+        this.root = root;
+    }
+
+    /**
+     * Merge a previous tree into the new tree.
+     * Values of the previous tree override values of the new tree and keys which are missing in the new tree are kept.
+     * If a key is a value in one tree and a section in the other, the node of the new tree is kept
+     *
+     * @param previous previous tree
+     * @return affected keys
+     */
+    MigrationReport merge(RootNode previous) {
+        this.merge(previous, this.root, null);
+        this.root.reindex();
+        return this.report;
+    }
+
+    private void merge(Node previous, Node target, String path) {
+        Map<String, Node> children = new HashMap<>();
+
+        // Only the first node of a key is reachable, like in the index
+        for (Node child : target.getChildren()) {
+            if (!(child instanceof TextNode))
+                children.putIfAbsent(child.getKey(), child);
+        }
+
+        Set<Node> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Node child : previous.getChildren()) {
+            if (child instanceof TextNode)
+                continue;
+
+            String key = path == null ? child.getKey() : path + "." + child.getKey();
+            Node match = children.get(child.getKey());
+
+            if (match == null) {
+                Node copy = carry(child);
+
+                if (copy == null)
+                    continue;
+
+                this.root.markChanged(RootNode.endOf(target));
+                target.getChildren().addLast(copy);
+                matched.add(copy);
+
+                this.collect(copy, key, this.report.getRetained());
+                continue;
+            }
+
+            matched.add(match);
+
+            // The new tree defines a value where the previous tree had a section or vice versa
+            if (child instanceof LeafNode != match instanceof LeafNode) {
+                this.collect(child, key, this.report.getConflicting());
+                continue;
+            }
+
+            if (child instanceof LeafNode) {
+                this.override((LeafNode) child, (LeafNode) match, key);
+                continue;
+            }
+
+            this.merge(child, match, key);
+        }
+
+        for (Node child : target.getChildren()) {
+            if (!(child instanceof TextNode) && !matched.contains(child))
+                this.collect(child, path == null ? child.getKey() : path + "." + child.getKey(), this.report.getAdded());
+        }
+    }
+
+    private void override(LeafNode previous, LeafNode target, String key) {
+        if (Objects.equals(previous.getValue(), target.getValue()))
+            return;
+
+        target.setValue(previous.getValue());
+        this.root.markChanged(target.getLine());
+
+        this.report.getOverridden().add(key);
+    }
+
+    /**
+     * Collect the keys of all leaves of a subtree
+     */
+    private void collect(Node node, String key, List<String> keys) {
+        if (node instanceof LeafNode) {
+            keys.add(key);
+            return;
+        }
+
+        for (Node child : node.getChildren()) {
+            if (!(child instanceof TextNode))
+                this.collect(child, key + "." + child.getKey(), keys);
+        }
+    }
+
+    /**
+     * Copy a subtree without its comments
+     *
+     * @param node root of the subtree
+     * @return copy or null if the subtree does not contain any values
+     */
+    private static Node carry(Node node) {
+        if (node instanceof LeafNode)
+            return new LeafNode(node.getKey(), ((LeafNode) node).getValue());
+
+        ParentNode copy = new ParentNode(node.getKey());
+
+        for (Node child : node.getChildren()) {
+            Node carried = child instanceof TextNode ? null : carry(child);
+
+            if (carried != null)
+                copy.getChildren().addLast(carried);
+        }
+
+        return copy.getChildren().isEmpty() ? null : copy;
+    }
+}
@@ -0,0 +1,115 @@
+package me.micartey.mvml;
+
+import me.micartey.mvml.nodes.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Streaming serializer which writes the node tree line by line.
+ * Only the current path is held in memory and indents are cached per depth
+ */
+class TreeWriter {
+
+    private final Writer writer;
+    private final String separator;
+    private final int spaces;
+
+    /**
+     * Assign the written line to every node, used when writing the file on disc
+     */
+    private final boolean numberLines;
+
+    private String[] indents = new String[8];
+
+    private int skip;
+    private int line;
+
+    TreeWriter(Writer writer, String separator, int spaces, boolean numberLines) {
+        this.writer = writer;
+        this.separator = separator;
+        this.spaces = spaces;
+        this.numberLines = numberLines;
+    }
+
+    /**
+     * Write a tree
+     *
+     * @param root root of the tree
+     * @param skip amount of leading lines which are counted but not written
+     * @return amount of lines of the tree
+     * @throws IOException if the writer fails
+     */
+    int write(RootNode root, int skip) throws IOException {
+        this.skip = skip;
+        this.line = 0;
+
+        for (Node child : root.getChildren()) {
+            this.write(child, 0);
+        }
+
+        return this.line;
+    }
+
+    private void write(Node node, int depth) throws IOException {
+        if (this.numberLines)
+            node.setLine(this.line);
+
+        if (this.line++ >= this.skip) {
+            this.writeData(node, depth);
+            this.writer.write(this.separator);
+        }
+
+        for (Node child : node.getChildren()) {
+            this.write(child, depth + 1);
+        }
+    }
+
+    /**
+     * Write {@link Node#toData()} with indents, without concatenating the line first
+     *
+     * @param node node
+     * @param depth depth of the node
+     * @throws IOException if the writer fails
+     */
+    private void writeData(Node node, int depth) throws IOException {
+        if (node instanceof TextNode) {
+            this.writer.write(node.toData());
+            return;
+        }
+
+        this.writer.write(this.indent(depth));
+
+        if (node instanceof LeafNode) {
+            this.writer.write(node.getKey());
+            this.writer.write(": ");
+            this.writer.write(String.valueOf(((LeafNode) node).getValue()));
+            return;
+        }
+
+        if (node instanceof ParentNode) {
+            this.writer.write(node.getKey());
+            this.writer.write(':');
+            return;
+        }
+
+        this.writer.write(node.toData());
+    }
+
+    private String indent(int depth) {
+        if (depth >= this.indents.length)
+            this.indents = Arrays.copyOf(this.indents, Math.max(depth + 1, this.indents.length * 2));
+
+        String indent = this.indents[depth];
+
+        if (indent == null) {
+            char[] chars = new char[depth * this.spaces];
+            Arrays.fill(chars, ' ');
+
+            indent = this.indents[depth] = new String(chars);
+        }
+
+        return indent;
+    }
+}
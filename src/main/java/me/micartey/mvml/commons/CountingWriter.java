@@ -0,0 +1,56 @@
+package me.micartey.mvml.commons;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer which counts the UTF-8 encoded length of everything written to it
+ */
+public class CountingWriter extends FilterWriter {
+
+    private long bytes;
+
+    public CountingWriter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        super.write(c);
+        this.count((char) c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        super.write(chars, offset, length);
+
+        for (int index = offset; index < offset + length; index++)
+            this.count(chars[index]);
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException {
+        super.write(string, offset, length);
+
+        for (int index = offset; index < offset + length; index++)
+            this.count(string.charAt(index));
+    }
+
+    /**
+     * @return UTF-8 encoded length of everything written so far
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    private void count(char c) {
+        // Surrogates are two bytes each, four bytes per pair
+        if (c < 0x80)
+            this.bytes += 1;
+        else if (c < 0x800 || Character.isSurrogate(c))
+            this.bytes += 2;
+        else
+            this.bytes += 3;
+    }
+}
@@ -1,39 +1,294 @@
 package me.micartey.mvml.commons;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class FileUtilities {
 
-    public static void writeFile(File file, List<String> list) throws Exception {
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    public static void writeFile(File file, List<String> list) throws IOException {
         writeFile(file.getAbsolutePath(), list);
     }
 
     public static void writeFile(String filename, List<String> list) throws IOException {
-        File file = new File(filename);
+        writeFile(new File(filename), lines(list));
+    }
+
+    /**
+     * Write a file by streaming its content
+     *
+     * @param file file
+     * @param content content
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeFile(File file, Content content) throws IOException {
         file.createNewFile();
 
         FileOutputStream outputStream = new FileOutputStream(file);
-        BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream));
+        BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
 
-        for (String line : list) {
-            bufferedWriter.write(line);
-            bufferedWriter.newLine();
-        }
+        content.write(bufferedWriter, System.lineSeparator());
 
         bufferedWriter.close();
     }
 
-    public static List<String> readFile(File file) throws IOException {
+    /**
+     * Stream the content to a temporary file next to the file and replace the file afterwards.
+     * Readers either see the previous or the new content, but never a partially written file
+     *
+     * @param file file
+     * @param content content
+     * @param sync force the content to the storage device before replacing the file
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeFileAtomically(File file, Content content, boolean sync) throws IOException {
+        File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+
+        writeFile(temp, content);
+
+        if (sync)
+            sync(temp);
+
         try {
-            return Files.readAllLines(file.toPath());
-        } catch (Exception exception) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Force the content of a file to the storage device
+     *
+     * @param file file
+     * @throws IOException if the file cannot be synchronized
+     */
+    public static void sync(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Overwrite a file starting at a certain line.
+     * Previous lines are kept untouched and the line separator of the file is reused
+     *
+     * @param file file
+     * @param from first line to write
+     * @param content content starting at line {@code from}
+     * @return false if the file does not have enough lines, in which case nothing has been written
+     * @throws IOException if the file cannot be written
+     */
+    public static boolean writeFile(File file, int from, Content content) throws IOException {
+        try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+            String separator = System.lineSeparator();
+
+            long offset = 0;
+            long position = 0;
+            int lines = 0;
+            boolean carriageReturn = false;
+
+            byte[] buffer = new byte[8192];
+            int read;
+
+            search: while (lines < from && (read = access.read(buffer)) != -1) {
+                for (int index = 0; index < read; index++, position++) {
+                    byte current = buffer[index];
+
+                    // A carriage return which is not followed by a line feed ends a line by itself
+                    if (carriageReturn && current != '\n' && ++lines == from) {
+                        offset = position;
+                        separator = "\r";
+                        break search;
+                    }
+
+                    if (current == '\n' && ++lines == from) {
+                        offset = position + 1;
+                        separator = carriageReturn ? "\r\n" : "\n";
+                        break search;
+                    }
+
+                    carriageReturn = current == '\r';
+                }
+            }
+
+            if (lines < from && carriageReturn && ++lines == from) {
+                offset = position;
+                separator = "\r";
+            }
+
+            if (lines < from)
+                return false;
+
+            access.seek(offset);
+
+            Writer writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(access.getChannel()), StandardCharsets.UTF_8));
+
+            content.write(writer, separator);
+
+            writer.flush();
+            access.setLength(access.getFilePointer());
+            return true;
+        }
+    }
+
+    private static Content lines(List<String> list) {
+        return (writer, separator) -> {
+            for (String line : list) {
+                writer.write(line);
+                writer.write(separator);
+            }
+        };
+    }
+
+    /**
+     * Read all lines of a file
+     *
+     * @param file file
+     * @return lines or an empty list if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static List<String> readFile(File file) throws IOException {
+        if (!file.exists())
             return Collections.emptyList();
+
+        return Files.readAllLines(file.toPath());
+    }
+
+    /**
+     * Map a file into memory.
+     * The mapping is released once the buffer has been garbage collected
+     *
+     * @param file file
+     * @return read-only buffer or an empty buffer if the file does not exist
+     * @throws IOException if the file cannot be mapped
+     */
+    public static ByteBuffer mapFile(File file) throws IOException {
+        if (!file.exists())
+            return EMPTY.duplicate();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("File is too large to be mapped: " + file);
+
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Read the content of a file into a heap buffer
+     *
+     * @param file file
+     * @return buffer or an empty buffer if the file does not exist
+     * @throws IOException if the file cannot be read
+     */
+    public static ByteBuffer readBuffer(File file) throws IOException {
+        if (!file.exists())
+            return EMPTY.duplicate();
+
+        return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Decode UTF-8 encoded lines from a buffer and pass them to a consumer.
+     * Lines are split and decoded like {@link Files#readAllLines(java.nio.file.Path)} does,
+     * but only one line at a time is held in memory
+     *
+     * @param buffer buffer, read from its position to its limit
+     * @param consumer line consumer
+     * @throws UncheckedIOException if the content is not valid UTF-8
+     */
+    public static void readLines(ByteBuffer buffer, Consumer<String> consumer) {
+        readLines(buffer, buffer.position(), buffer.limit(), consumer);
+    }
+
+    /**
+     * Decode UTF-8 encoded lines from a range of a buffer and pass them to a consumer
+     *
+     * @param buffer buffer
+     * @param start offset of the first line
+     * @param limit end of the range (exclusive)
+     * @param consumer line consumer
+     * @throws UncheckedIOException if the content is not valid UTF-8
+     */
+    public static void readLines(ByteBuffer buffer, int start, int limit, Consumer<String> consumer) {
+        byte[] scratch = new byte[256];
+
+        // Malformed input would otherwise be replaced and written back damaged
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+
+        for (int index = start; index < limit; index++) {
+            byte current = buffer.get(index);
+
+            if (current != '\n' && current != '\r')
+                continue;
+
+            scratch = decodeLine(buffer, start, index, scratch, decoder, consumer);
+
+            if (current == '\r' && index + 1 < limit && buffer.get(index + 1) == '\n')
+                index++;
+
+            start = index + 1;
+        }
+
+        if (start < limit)
+            decodeLine(buffer, start, limit, scratch, decoder, consumer);
+    }
+
+    private static byte[] decodeLine(ByteBuffer buffer, int start, int end, byte[] scratch, CharsetDecoder decoder, Consumer<String> consumer) {
+        int length = end - start;
+        int bits = 0;
+
+        if (scratch.length < length)
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+
+        for (int index = 0; index < length; index++)
+            bits |= scratch[index] = buffer.get(start + index);
+
+        // ASCII lines cannot be malformed, the decoder is only required for multi-byte characters
+        if (bits >= 0) {
+            consumer.accept(new String(scratch, 0, length, StandardCharsets.UTF_8));
+            return scratch;
+        }
+
+        try {
+            consumer.accept(decoder.decode(ByteBuffer.wrap(scratch, 0, length)).toString());
+        } catch (CharacterCodingException exception) {
+            throw new UncheckedIOException(exception);
         }
+
+        return scratch;
+    }
+
+    /**
+     * Content of a file which is written line by line
+     */
+    @FunctionalInterface
+    public interface Content {
+
+        /**
+         * @param writer target
+         * @param separator line separator to terminate every line with
+         * @throws IOException if the writer fails
+         */
+        void write(Writer writer, String separator) throws IOException;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package me.micartey.mvml.converter;
+
+/**
+ * Converts the String representation of a value to an instance of a type
+ *
+ * @param <T> target type
+ */
+@FunctionalInterface
+public interface Converter<T> {
+
+    /**
+     * @param value String representation, never "null"
+     * @return converted value
+     */
+    T convert(String value);
+}
@@ -0,0 +1,162 @@
+package me.micartey.mvml.converter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of converters used for typed reads.
+ * Converters for types without a registered converter are discovered once through their
+ * static {@code valueOf(String)} method and cached afterwards
+ */
+public class ConverterRegistry {
+
+    private final Map<Class<?>, Converter<?>> converters = new ConcurrentHashMap<>();
+
+    public ConverterRegistry() {
+        this.register(String.class, value -> value);
+        this.register(List.class, ConverterRegistry::toList);
+
+        this.register(int.class, Integer::valueOf);
+        this.register(Integer.class, Integer::valueOf);
+        this.register(long.class, Long::valueOf);
+        this.register(Long.class, Long::valueOf);
+        this.register(double.class, Double::valueOf);
+        this.register(Double.class, Double::valueOf);
+        this.register(float.class, Float::valueOf);
+        this.register(Float.class, Float::valueOf);
+        this.register(short.class, Short::valueOf);
+        this.register(Short.class, Short::valueOf);
+        this.register(byte.class, Byte::valueOf);
+        this.register(Byte.class, Byte::valueOf);
+        this.register(boolean.class, Boolean::valueOf);
+        this.register(Boolean.class, Boolean::valueOf);
+        this.register(char.class, ConverterRegistry::toCharacter);
+        this.register(Character.class, ConverterRegistry::toCharacter);
+    }
+
+    /**
+     * Register a converter for a type, replacing a previous one
+     *
+     * @param type target type
+     * @param converter converter
+     * @return this registry
+     * @param <T> target type
+     */
+    public <T> ConverterRegistry register(Class<T> type, Converter<? extends T> converter) {
+        this.converters.put(type, converter);
+        return this;
+    }
+
+    /**
+     * Get the converter of a type
+     *
+     * @param type target type
+     * @return converter
+     * @param <T> target type
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Converter<T> get(Class<T> type) {
+        return (Converter<T>) this.converters.computeIfAbsent(type, ConverterRegistry::discover);
+    }
+
+    /**
+     * @param type target type
+     * @return true if a converter has been registered or discovered for the type
+     */
+    public boolean contains(Class<?> type) {
+        return this.converters.containsKey(type);
+    }
+
+    /**
+     * Convert a String representation to a certain type
+     *
+     * @param type target type
+     * @param value String representation
+     * @return converted value or null if the value is "null"
+     */
+    public Object convert(Class<?> type, String value) {
+        if (value.equals("null"))
+            return null;
+
+        return this.get(type).convert(value);
+    }
+
+    /**
+     * Create a converter which invokes the static {@code valueOf(String)} method of a type
+     *
+     * @param type target type
+     * @return converter
+     */
+    private static Converter<?> discover(Class<?> type) {
+        MethodHandle handle;
+
+        try {
+            Method method = type.getMethod("valueOf", String.class);
+
+            if (!Modifier.isStatic(method.getModifiers()))
+                throw new NoSuchMethodException(type.getName() + ".valueOf(String) is not static");
+
+            handle = MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(Object.class, String.class));
+        } catch (ReflectiveOperationException exception) {
+            throw new RuntimeException(exception);
+        }
+
+        return value -> {
+            try {
+                return (Object) handle.invokeExact(value);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new RuntimeException(throwable);
+            }
+        };
+    }
+
+    /**
+     * @param value String representation
+     * @return single character of the value
+     * @throws IllegalArgumentException if the value is not a single character
+     */
+    private static Character toCharacter(String value) {
+        if (value.length() != 1)
+            throw new IllegalArgumentException("Not a single character: " + value);
+
+        return value.charAt(0);
+    }
+
+    /**
+     * Convert the String representation of a list, e.g. "[Some, String, Array]"
+     *
+     * @param value String representation
+     * @return list of elements
+     */
+    private static List<String> toList(String value) {
+        int start = value.startsWith("[") ? 1 : 0;
+        int end = value.endsWith("]") && value.length() > start ? value.length() - 1 : value.length();
+
+        List<String> list = new ArrayList<>();
+
+        if (start == end)
+            return list;
+
+        for (int index = value.indexOf(", ", start); index != -1 && index < end; index = value.indexOf(", ", start)) {
+            list.add(value.substring(start, index));
+            start = index + 2;
+        }
+
+        list.add(value.substring(start, end));
+
+        // Trailing empty elements are dropped like String#split does
+        while (!list.isEmpty() && list.get(list.size() - 1).isEmpty())
+            list.remove(list.size() - 1);
+
+        return list;
+    }
+}
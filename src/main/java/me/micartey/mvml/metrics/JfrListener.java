@@ -0,0 +1,82 @@
+package me.micartey.mvml.metrics;
+
+import jdk.jfr.*;
+
+import java.io.File;
+
+/**
+ * Listener which emits JDK Flight Recorder events.
+ * Events are only created if they are enabled in the running recording
+ */
+public class JfrListener implements MvmlListener {
+
+    @Override
+    public void onOperation(MvmlOperation operation, File file, long nanos, long bytes) {
+        OperationEvent event = new OperationEvent();
+
+        if (!event.isEnabled())
+            return;
+
+        event.operation = operation.name();
+        event.file = file.getPath();
+        event.elapsed = nanos;
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    @Override
+    public void onLookup(File file, String key, boolean found) {
+        if (found)
+            return;
+
+        MissEvent event = new MissEvent();
+
+        if (!event.isEnabled())
+            return;
+
+        event.file = file.getPath();
+        event.key = key;
+        event.commit();
+    }
+
+    @Override
+    public void onParsed(File file, int nodes) {
+        ParsedEvent event = new ParsedEvent();
+
+        if (!event.isEnabled())
+            return;
+
+        event.file = file.getPath();
+        event.nodes = nodes;
+        event.commit();
+    }
+
+    @Name("me.micartey.mvml.Operation")
+    @Label("Operation")
+    @Category("MVML")
+    static class OperationEvent extends Event {
+
+        @Label("Operation") String operation;
+        @Label("File") String file;
+        @Label("Elapsed") @Timespan(Timespan.NANOSECONDS) long elapsed;
+        @Label("Bytes") @DataAmount long bytes;
+    }
+
+    @Name("me.micartey.mvml.Miss")
+    @Label("Missing Key")
+    @Category("MVML")
+    static class MissEvent extends Event {
+
+        @Label("File") String file;
+        @Label("Key") String key;
+    }
+
+    @Name("me.micartey.mvml.Parsed")
+    @Label("Parsed File")
+    @Category("MVML")
+    static class ParsedEvent extends Event {
+
+        @Label("File") String file;
+        @Label("Nodes") int nodes;
+    }
+}
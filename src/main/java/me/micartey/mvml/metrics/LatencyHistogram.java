@@ -0,0 +1,85 @@
+package me.micartey.mvml.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with power of two buckets.
+ * Recording is lock free and percentiles are accurate within a factor of two
+ */
+public class LatencyHistogram {
+
+    /**
+     * Bucket i counts durations from 2^i to 2^(i + 1) - 1 nanoseconds
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+
+        this.buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(nanos, 1)));
+        this.count.increment();
+        this.total.add(nanos);
+        this.max.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return amount of recorded durations
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * @return sum of all durations in nanoseconds
+     */
+    public long getTotal() {
+        return this.total.sum();
+    }
+
+    /**
+     * @return longest duration in nanoseconds
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * @return mean duration in nanoseconds
+     */
+    public double getMean() {
+        long count = this.getCount();
+        return count == 0 ? 0 : (double) this.getTotal() / count;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 1, e.g. 0.99
+     * @return upper bound of the bucket which contains the percentile in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        long count = this.getCount();
+
+        if (count == 0)
+            return 0;
+
+        long target = Math.max((long) Math.ceil(percentile * count), 1);
+        long seen = 0;
+
+        for (int index = 0; index < 64; index++) {
+            seen += this.buckets.get(index);
+
+            if (seen >= target)
+                return Math.min(index >= 62 ? Long.MAX_VALUE : (1L << (index + 1)) - 1, this.getMax());
+        }
+
+        return this.getMax();
+    }
+}
@@ -0,0 +1,78 @@
+package me.micartey.mvml.metrics;
+
+import java.io.File;
+
+/**
+ * Receives measurements of a parser.
+ * Listeners are called on the thread which performs the operation, thus they should return quickly.
+ * No measurements are taken if no listener is configured
+ */
+public interface MvmlListener {
+
+    /**
+     * @param operation operation
+     * @param file file
+     * @param nanos duration in nanoseconds
+     * @param bytes bytes read by {@link MvmlOperation#PARSE} and {@link MvmlOperation#RELOAD},
+     *              bytes written by {@link MvmlOperation#SAVE}, 0 otherwise
+     */
+    default void onOperation(MvmlOperation operation, File file, long nanos, long bytes) {
+    }
+
+    /**
+     * @param file file
+     * @param key key which has been looked up, the first key of a range or an empty key for the whole tree
+     * @param found false if the key is not present
+     */
+    default void onLookup(File file, String key, boolean found) {
+    }
+
+    /**
+     * @param file file
+     * @param key key which has been set
+     */
+    default void onSet(File file, String key) {
+    }
+
+    /**
+     * @param file file
+     * @param nodes amount of nodes which can be looked up by key
+     */
+    default void onParsed(File file, int nodes) {
+    }
+
+    /**
+     * Combine listeners
+     *
+     * @param listeners listeners which are called in order
+     * @return listener which calls all listeners
+     */
+    static MvmlListener of(MvmlListener... listeners) {
+        return new MvmlListener() {
+
+            @Override
+            public void onOperation(MvmlOperation operation, File file, long nanos, long bytes) {
+                for (MvmlListener listener : listeners)
+                    listener.onOperation(operation, file, nanos, bytes);
+            }
+
+            @Override
+            public void onLookup(File file, String key, boolean found) {
+                for (MvmlListener listener : listeners)
+                    listener.onLookup(file, key, found);
+            }
+
+            @Override
+            public void onSet(File file, String key) {
+                for (MvmlListener listener : listeners)
+                    listener.onSet(file, key);
+            }
+
+            @Override
+            public void onParsed(File file, int nodes) {
+                for (MvmlListener listener : listeners)
+                    listener.onParsed(file, nodes);
+            }
+        };
+    }
+}
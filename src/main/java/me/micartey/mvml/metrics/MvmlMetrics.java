@@ -0,0 +1,91 @@
+package me.micartey.mvml.metrics;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener which aggregates latencies and counters of all parsers it is configured for
+ */
+public class MvmlMetrics implements MvmlListener {
+
+    private final Map<MvmlOperation, LatencyHistogram> latencies = new EnumMap<>(MvmlOperation.class);
+    private final Map<File, Integer> nodes = new ConcurrentHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sets = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    public MvmlMetrics() {
+        for (MvmlOperation operation : MvmlOperation.values())
+            this.latencies.put(operation, new LatencyHistogram());
+    }
+
+    @Override
+    public void onOperation(MvmlOperation operation, File file, long nanos, long bytes) {
+        this.latencies.get(operation).record(nanos);
+
+        if (operation == MvmlOperation.SAVE)
+            this.bytesWritten.add(bytes);
+        else
+            this.bytesRead.add(bytes);
+    }
+
+    @Override
+    public void onLookup(File file, String key, boolean found) {
+        this.lookups.increment();
+
+        if (!found)
+            this.misses.increment();
+    }
+
+    @Override
+    public void onSet(File file, String key) {
+        this.sets.increment();
+    }
+
+    @Override
+    public void onParsed(File file, int nodes) {
+        this.nodes.put(file, nodes);
+    }
+
+    /**
+     * @param operation operation
+     * @return latencies of the operation
+     */
+    public LatencyHistogram getLatency(MvmlOperation operation) {
+        return this.latencies.get(operation);
+    }
+
+    public long getLookupCount() {
+        return this.lookups.sum();
+    }
+
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    public long getSetCount() {
+        return this.sets.sum();
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return this.bytesWritten.sum();
+    }
+
+    /**
+     * @param file file
+     * @return amount of nodes which can be looked up by key when the file was last parsed, -1 if it has not been parsed
+     */
+    public int getNodeCount(File file) {
+        return this.nodes.getOrDefault(file, -1);
+    }
+}
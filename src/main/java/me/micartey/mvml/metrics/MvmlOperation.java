@@ -0,0 +1,32 @@
+package me.micartey.mvml.metrics;
+
+/**
+ * Operations which are reported to a {@link MvmlListener}
+ */
+public enum MvmlOperation {
+
+    /**
+     * Load a file, including the template and migration
+     */
+    LOAD,
+
+    /**
+     * Parse a file
+     */
+    PARSE,
+
+    /**
+     * Reload a file which has been modified by someone else
+     */
+    RELOAD,
+
+    /**
+     * Save a file
+     */
+    SAVE,
+
+    /**
+     * Migrate the values to a new file
+     */
+    MIGRATE
+}
@@ -0,0 +1,53 @@
+package me.micartey.mvml.nodes;
+
+/**
+ * Parent node whose children are parsed on first access
+ */
+public class LazyNode extends ParentNode {
+
+    private transient volatile Loader loader;
+
+    public LazyNode(String key, Loader loader) {
+        super(key);
+
+        this.loader = loader;
+    }
+
+    /**
+     * @return true if the children have been parsed
+     */
+    public boolean isLoaded() {
+        return this.loader == null;
+    }
+
+    @Override
+    public NodeList getChildren() {
+        // The loader itself may access the children while they are being parsed
+        if (this.loader != null && !Thread.holdsLock(this))
+            this.load();
+
+        return super.getChildren();
+    }
+
+    private synchronized void load() {
+        Loader loader = this.loader;
+
+        if (loader == null)
+            return;
+
+        loader.load(this, super.getChildren());
+        this.loader = null;
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+
+        /**
+         * Parse the children of a node
+         *
+         * @param node node to load
+         * @param children empty list of children to fill
+         */
+        void load(LazyNode node, NodeList children);
+    }
+}
@@ -1,12 +1,18 @@
 package me.micartey.mvml.nodes;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
 public class LeafNode extends Node {
 
-    @Setter private String value;
+    private String value;
+
+    /**
+     * Last parsed representation of the value (Long, Double or Boolean).
+     * Boxed values are immutable, thus the cache can be shared between threads without locking
+     */
+    @Getter(AccessLevel.NONE) private transient Object parsed;
 
     public LeafNode(String key, String value) {
         super(key);
@@ -14,8 +20,60 @@ public class LeafNode extends Node {
         this.value = value;
     }
 
+    public void setValue(String value) {
+        this.value = value;
+        this.parsed = null;
+    }
+
+    /**
+     * @return value parsed as long, cached until the value changes
+     */
+    public long getLongValue() {
+        Object parsed = this.parsed;
+
+        if (parsed instanceof Long)
+            return (Long) parsed;
+
+        long value = Long.parseLong(this.value);
+        this.parsed = value;
+        return value;
+    }
+
+    /**
+     * @return value parsed as double, cached until the value changes
+     */
+    public double getDoubleValue() {
+        Object parsed = this.parsed;
+
+        if (parsed instanceof Double)
+            return (Double) parsed;
+
+        double value = Double.parseDouble(this.value);
+        this.parsed = value;
+        return value;
+    }
+
+    /**
+     * @return value parsed as boolean, cached until the value changes
+     */
+    public boolean getBooleanValue() {
+        Object parsed = this.parsed;
+
+        if (parsed instanceof Boolean)
+            return (Boolean) parsed;
+
+        boolean value = Boolean.parseBoolean(this.value);
+        this.parsed = value;
+        return value;
+    }
+
     @Override
     public String toData() {
         return this.getKey() + ": " + getValue();
     }
+
+    @Override
+    public LeafNode copy() {
+        return this.copyChildren(new LeafNode(this.getKey(), this.value));
+    }
 }
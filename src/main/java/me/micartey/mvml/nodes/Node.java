@@ -2,28 +2,91 @@ package me.micartey.mvml.nodes;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
-import java.util.LinkedList;
+import java.util.Arrays;
 
 @Getter
 @RequiredArgsConstructor
 public abstract class Node {
 
-    @Setter private final LinkedList<Node> children = new LinkedList<>();
     private final String key;
 
+    /**
+     * Children, exposed through {@link #getChildren()}. The array is only allocated once a child is added
+     */
+    @Getter(AccessLevel.NONE) transient Node[] childNodes;
+    @Getter(AccessLevel.NONE) transient int childCount;
+
+    /**
+     * Incremented whenever children are added or removed, shared by all views of the children
+     */
+    @Getter(AccessLevel.NONE) transient int childModCount;
+
+    /**
+     * Line of this node in the file on disc, -1 if the node has not been written yet
+     */
+    @Setter private transient int line = -1;
+
+    /**
+     * @return view of the children, changes are written through
+     */
+    public NodeList getChildren() {
+        return new NodeList(this);
+    }
+
+    /**
+     * Release unused capacity of the children, without loading them
+     */
+    public void trimChildren() {
+        if (this.childNodes != null && this.childNodes.length != this.childCount)
+            this.childNodes = this.childCount == 0 ? null : Arrays.copyOf(this.childNodes, this.childCount);
+    }
+
     public boolean containsKey(String key) {
-        return key.equals(this.key) || this.children.stream().anyMatch(node -> node.containsKey(key));
+        return key.equals(this.key) || this.getChildren().stream().anyMatch(node -> node.containsKey(key));
     }
 
     public abstract String toData();
 
+    /**
+     * Create a deep copy of this node and all of its children
+     *
+     * @return copy
+     */
+    public abstract Node copy();
+
+    protected <T extends Node> T copyChildren(T target) {
+        target.setLine(this.line);
+
+        for (Node child : this.getChildren()) {
+            target.getChildren().addLast(child.copy());
+        }
+
+        return target;
+    }
+
     @Override
     public String toString() {
         Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        return gson.toJson(this);
+        return gson.toJson(this.toJson(gson));
+    }
+
+    private JsonElement toJson(Gson gson) {
+        JsonObject json = gson.toJsonTree(this).getAsJsonObject();
+        JsonArray children = new JsonArray();
+
+        for (Node child : this.getChildren()) {
+            children.add(child.toJson(gson));
+        }
+
+        json.add("children", children);
+        return json;
     }
 }
\ No newline at end of file
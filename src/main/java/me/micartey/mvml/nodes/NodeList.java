@@ -0,0 +1,183 @@
+package me.micartey.mvml.nodes;
+
+import java.util.*;
+
+/**
+ * List view of the children of a node.
+ * Children are stored in an array of the node which is only allocated once the first child is added,
+ * thus nodes without children do not carry an empty list.
+ * Iterators of all views fail if the children are added or removed through another view
+ */
+public class NodeList extends AbstractList<Node> implements RandomAccess {
+
+    private static final Node[] EMPTY = new Node[0];
+
+    private final Node owner;
+
+    NodeList(Node owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public Node get(int index) {
+        this.check(index, this.owner.childCount);
+        return this.owner.childNodes[index];
+    }
+
+    @Override
+    public Node set(int index, Node node) {
+        this.check(index, this.owner.childCount);
+
+        Node previous = this.owner.childNodes[index];
+        this.owner.childNodes[index] = node;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return this.owner.childCount;
+    }
+
+    @Override
+    public void add(int index, Node node) {
+        Node owner = this.owner;
+        this.check(index, owner.childCount + 1);
+
+        Node[] nodes = owner.childNodes == null ? EMPTY : owner.childNodes;
+
+        if (owner.childCount == nodes.length)
+            nodes = owner.childNodes = Arrays.copyOf(nodes, Math.max(4, nodes.length + (nodes.length >> 1)));
+
+        System.arraycopy(nodes, index, nodes, index + 1, owner.childCount - index);
+        nodes[index] = node;
+
+        owner.childCount++;
+        owner.childModCount++;
+        this.modCount++;
+    }
+
+    @Override
+    public Node remove(int index) {
+        Node owner = this.owner;
+        this.check(index, owner.childCount);
+
+        Node[] nodes = owner.childNodes;
+        Node previous = nodes[index];
+
+        System.arraycopy(nodes, index + 1, nodes, index, owner.childCount - index - 1);
+        nodes[--owner.childCount] = null;
+
+        // Release the array of nodes which lost all of their children
+        if (owner.childCount == 0)
+            owner.childNodes = null;
+
+        owner.childModCount++;
+        this.modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        this.owner.childNodes = null;
+        this.owner.childCount = 0;
+        this.owner.childModCount++;
+        this.modCount++;
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Spliterator<Node> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED);
+    }
+
+    /**
+     * @param node node to append
+     */
+    public void addLast(Node node) {
+        this.add(this.owner.childCount, node);
+    }
+
+    /**
+     * @return first child
+     * @throws NoSuchElementException if there are no children
+     */
+    public Node getFirst() {
+        if (this.owner.childCount == 0)
+            throw new NoSuchElementException();
+
+        return this.owner.childNodes[0];
+    }
+
+    /**
+     * @return last child
+     * @throws NoSuchElementException if there are no children
+     */
+    public Node getLast() {
+        if (this.owner.childCount == 0)
+            throw new NoSuchElementException();
+
+        return this.owner.childNodes[this.owner.childCount - 1];
+    }
+
+    /**
+     * Shrink the storage to the amount of children
+     */
+    public void trimToSize() {
+        this.owner.trimChildren();
+    }
+
+    private void check(int index, int size) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.owner.childCount);
+    }
+
+    /**
+     * Unlike the iterator of {@link AbstractList}, changes are detected through the counter of the node,
+     * which is shared by all views
+     */
+    private class Itr implements Iterator<Node> {
+
+        private int cursor;
+        private int last = -1;
+        private int expectedModCount = NodeList.this.owner.childModCount;
+
+        @Override
+        public boolean hasNext() {
+            return this.cursor != NodeList.this.owner.childCount;
+        }
+
+        @Override
+        public Node next() {
+            this.checkForComodification();
+
+            if (this.cursor >= NodeList.this.owner.childCount)
+                throw new NoSuchElementException();
+
+            this.last = this.cursor;
+            return NodeList.this.owner.childNodes[this.cursor++];
+        }
+
+        @Override
+        public void remove() {
+            if (this.last < 0)
+                throw new IllegalStateException();
+
+            this.checkForComodification();
+
+            NodeList.this.remove(this.last);
+
+            this.cursor = this.last;
+            this.last = -1;
+            this.expectedModCount = NodeList.this.owner.childModCount;
+        }
+
+        private void checkForComodification() {
+            if (NodeList.this.owner.childModCount != this.expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+}
@@ -13,4 +13,9 @@ public class ParentNode extends Node {
     public String toData() {
         return this.getKey() + ":";
     }
+
+    @Override
+    public ParentNode copy() {
+        return this.copyChildren(new ParentNode(this.getKey()));
+    }
 }
@@ -1,13 +1,354 @@
 package me.micartey.mvml.nodes;
 
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.File;
+import java.util.*;
+
 public class RootNode extends Node {
 
+    /**
+     * Full path (e.g. "my.field") to node mapping of the whole tree
+     */
+    private final transient Map<String, Node> index = new HashMap<>();
+
+    /**
+     * Index sorted by path, only built once it is queried and maintained from then on
+     */
+    private transient volatile NavigableMap<String, Node> sortedIndex;
+
+    /**
+     * Incremented whenever a path is removed from the index
+     */
+    @Getter private transient int modCount;
+
+    /**
+     * True if the tree contains {@link LazyNode}s
+     */
+    @Getter @Setter private transient boolean lazy;
+
+    /**
+     * Incremented on every change and whenever the tree has been synchronized with the file
+     */
+    @Getter private transient int revision;
+
+    /**
+     * Revision when the tree was last read or written
+     */
+    private transient int trackedRevision;
+
+    /**
+     * First line which differs from the file on disc, {@link Integer#MAX_VALUE} if there is none
+     */
+    @Getter private transient int firstChange = Integer.MAX_VALUE;
+
+    /**
+     * Length and modification time of the file when it was last read or written
+     */
+    @Getter private transient long fileLength = -1;
+    private transient long lastModified = -1;
+
     public RootNode() {
         super(null);
     }
 
+    /**
+     * @return amount of nodes which can be looked up by their full path
+     */
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Lookup a node by its full path
+     *
+     * @param path full path
+     * @return Node or null if not present
+     */
+    public Node lookup(String path) {
+        Node node = this.index.get(path);
+
+        if (node != null || !this.lazy)
+            return node;
+
+        // The path might point into a section which has not been parsed yet
+        int index = path.indexOf('.');
+
+        if (index == -1)
+            return null;
+
+        Node section = this.index.get(path.substring(0, index));
+
+        if (!(section instanceof LazyNode) || ((LazyNode) section).isLoaded())
+            return null;
+
+        section.getChildren();
+        return this.index.get(path);
+    }
+
+    /**
+     * Get all indexed nodes below a path in the order of their paths.
+     * The result is a view of the sorted index, it must not be used after the tree has been changed
+     *
+     * @param path full path of a parent node
+     * @return nodes by full path
+     */
+    public SortedMap<String, Node> subtree(String path) {
+        // Sections which have not been parsed yet are not indexed
+        int index = path.indexOf('.');
+        Node section = this.lookup(index == -1 ? path : path.substring(0, index));
+
+        if (section instanceof LazyNode)
+            section.getChildren();
+
+        return this.range(path + ".", path + "/");
+    }
+
+    /**
+     * Get all indexed nodes whose path is within a range in the order of their paths.
+     * The result is a view of the sorted index, it must not be used after the tree has been changed
+     *
+     * @param from first path (inclusive)
+     * @param to last path (exclusive)
+     * @return nodes by full path
+     */
+    public SortedMap<String, Node> range(String from, String to) {
+        return Collections.unmodifiableSortedMap(this.getSortedIndex().subMap(from, to));
+    }
+
+    private NavigableMap<String, Node> getSortedIndex() {
+        NavigableMap<String, Node> sortedIndex = this.sortedIndex;
+
+        if (sortedIndex != null)
+            return sortedIndex;
+
+        synchronized (this) {
+            if (this.sortedIndex == null)
+                this.sortedIndex = new TreeMap<>(this.index);
+
+            return this.sortedIndex;
+        }
+    }
+
+    /**
+     * Add a node and all of its children to the index.
+     * If a path is already present, the first node is kept
+     *
+     * @param node node to add
+     * @param path full path of the node
+     */
+    public void register(Node node, String path) {
+        if (node.getKey() == null)
+            return;
+
+        // Keys containing dots can never be resolved by a dotted path
+        if (node.getKey().indexOf('.') != -1)
+            return;
+
+        // Children of shadowed nodes are not reachable
+        if (this.index.putIfAbsent(path, node) != null)
+            return;
+
+        if (this.sortedIndex != null)
+            this.sortedIndex.put(path, node);
+
+        // Children of lazy nodes are registered once they are parsed
+        if (node instanceof LazyNode && !((LazyNode) node).isLoaded())
+            return;
+
+        for (Node child : node.getChildren()) {
+            this.register(child, path + "." + child.getKey());
+        }
+    }
+
+    /**
+     * Parse all {@link LazyNode}s which have not been accessed yet
+     */
+    public void materialize() {
+        if (!this.lazy)
+            return;
+
+        for (Node child : this.getChildren()) {
+            child.getChildren();
+        }
+
+        this.lazy = false;
+    }
+
+    /**
+     * Add the children of a node to the index, unless the node itself is not indexed
+     *
+     * @param node parent node
+     * @param path full path of the parent node
+     */
+    public void registerChildren(Node node, String path) {
+        if (this.index.get(path) != node)
+            return;
+
+        for (Node child : node.getChildren()) {
+            this.register(child, path + "." + child.getKey());
+        }
+    }
+
+    /**
+     * Remove a node and all of its children from the index
+     *
+     * @param node node to remove
+     * @param path full path of the node
+     */
+    public void unregister(Node node, String path) {
+        if (node.getKey() == null)
+            return;
+
+        if (this.index.remove(path, node)) {
+            this.modCount++;
+
+            if (this.sortedIndex != null)
+                this.sortedIndex.remove(path);
+        }
+
+        if (node instanceof LazyNode && !((LazyNode) node).isLoaded())
+            return;
+
+        for (Node child : node.getChildren()) {
+            this.unregister(child, path + "." + child.getKey());
+        }
+    }
+
+    /**
+     * Rebuild the index from scratch
+     */
+    public void reindex() {
+        this.index.clear();
+        this.sortedIndex = null;
+        this.modCount++;
+
+        for (Node child : this.getChildren()) {
+            this.register(child, child.getKey());
+        }
+    }
+
     @Override
     public String toData() {
         return "";
     }
+
+    /**
+     * Restore the change tracking after all changes since have been undone
+     *
+     * @param revision revision before the changes
+     * @param firstChange first changed line before the changes
+     */
+    public void restore(int revision, int firstChange) {
+        this.revision = revision;
+        this.firstChange = firstChange;
+    }
+
+    /**
+     * Mark a line as changed
+     *
+     * @param line line in the file on disc, ignored if negative
+     */
+    public void markChanged(int line) {
+        this.revision++;
+
+        if (line >= 0)
+            this.firstChange = Math.min(this.firstChange, line);
+    }
+
+    /**
+     * @return true if the tree differs from the file on disc
+     */
+    public boolean isDirty() {
+        return this.firstChange != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Unlike {@link #isDirty()}, lines which are only written differently are not considered
+     *
+     * @return true if the tree has been changed since it was last read or written
+     */
+    public boolean isModified() {
+        return this.revision != this.trackedRevision;
+    }
+
+    /**
+     * Mark the tree as equal to the file on disc
+     *
+     * @param file file which has been read or written
+     */
+    public void markSynchronized(File file) {
+        this.revision++;
+        this.firstChange = Integer.MAX_VALUE;
+        this.track(file.length(), file.lastModified());
+    }
+
+    /**
+     * Mark the tree as equal to the file on disc, unless it has been changed while the file was written.
+     * Otherwise, the tree stays modified and will be written completely by the next save
+     *
+     * @param file file which has been written
+     * @param revision revision of the tree when writing started
+     */
+    public void markSynchronized(File file, int revision) {
+        if (this.revision == revision) {
+            this.markSynchronized(file);
+            return;
+        }
+
+        this.firstChange = 0;
+        this.fileLength = file.length();
+        this.lastModified = file.lastModified();
+    }
+
+    /**
+     * Remember the state of the file this tree has been read from
+     *
+     * @param fileLength length of the file
+     * @param lastModified modification time of the file
+     */
+    public void track(long fileLength, long lastModified) {
+        this.trackedRevision = this.revision;
+        this.fileLength = fileLength;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param file file on disc
+     * @return true if the file has not been modified since it was last read or written
+     */
+    public boolean isSynchronized(File file) {
+        return file.exists() && file.length() == this.fileLength && file.lastModified() == this.lastModified;
+    }
+
+    /**
+     * Get the line after the subtree of a node, which is where a new child will be written
+     *
+     * @param node parent node
+     * @return line or -1 if the subtree ends with a node which has not been written yet
+     */
+    public static int endOf(Node node) {
+        Node last = node;
+
+        while (!last.getChildren().isEmpty())
+            last = last.getChildren().getLast();
+
+        if (last instanceof RootNode)
+            return 0;
+
+        return last.getLine() < 0 ? -1 : last.getLine() + 1;
+    }
+
+    @Override
+    public RootNode copy() {
+        RootNode root = this.copyChildren(new RootNode());
+        root.firstChange = this.firstChange;
+        root.revision = this.revision;
+        root.trackedRevision = this.trackedRevision;
+        root.fileLength = this.fileLength;
+        root.lastModified = this.lastModified;
+        root.reindex();
+        return root;
+    }
 }
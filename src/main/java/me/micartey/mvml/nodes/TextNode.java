@@ -18,6 +18,11 @@ public class TextNode extends Node {
         return this.value;
     }
 
+    @Override
+    public TextNode copy() {
+        return this.copyChildren(new TextNode(this.value));
+    }
+
     @Override
     public String toString() {
 //        if (!this.getChildren().isEmpty())
@@ -0,0 +1,151 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class BindTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testRecord() throws IOException {
+        MvmlParser parser = this.load();
+        Database database = parser.bind("database", Database.class);
+
+        Assertions.assertEquals("localhost", database.host());
+        Assertions.assertEquals(3306, database.port());
+        Assertions.assertTrue(database.ssl());
+        Assertions.assertEquals(TimeUnit.SECONDS, database.unit());
+        Assertions.assertEquals(Arrays.asList("a", "b"), database.tables());
+        Assertions.assertEquals(new Pool(10, 30L), database.pool());
+
+        // Missing components get default values
+        Assertions.assertEquals(0, database.retries());
+
+        Assertions.assertThrows(RuntimeException.class, () -> parser.bind("database.host", Database.class));
+        Assertions.assertThrows(RuntimeException.class, () -> parser.bind("missing", Database.class));
+    }
+
+    @Test
+    public void testObject() throws IOException {
+        MvmlParser parser = this.load();
+        Settings settings = parser.section("database").bind(Settings.class);
+
+        Assertions.assertEquals("localhost", settings.host);
+        Assertions.assertEquals(3306, settings.port);
+        Assertions.assertEquals(10, settings.pool.size);
+        Assertions.assertEquals(5, settings.retries);
+    }
+
+    @Test
+    public void testUnbind() throws IOException {
+        MvmlParser parser = this.load();
+
+        parser.unbind("copy", new Database("remote", 5432, false, TimeUnit.MINUTES, Arrays.asList("c"), new Pool(2, 60L), 3));
+        parser.save();
+
+        MvmlParser reloaded = new MvmlConfiguration(parser.getConfiguration().getFile()).setBuffer(new FileBuffer()).load();
+        Database database = reloaded.bind("copy", Database.class);
+
+        Assertions.assertEquals(new Database("remote", 5432, false, TimeUnit.MINUTES, Arrays.asList("c"), new Pool(2, 60L), 3), database);
+        Assertions.assertEquals("60", reloaded.get("copy.pool.timeout"));
+        Assertions.assertEquals("localhost", reloaded.get("database.host"));
+
+        Settings settings = reloaded.bind("database", Settings.class);
+        settings.port = 1;
+        settings.pool.size = 4;
+        reloaded.unbind("database", settings);
+
+        Assertions.assertEquals(1, reloaded.getInt("database.port"));
+        Assertions.assertEquals(4, reloaded.getInt("database.pool.size"));
+        Assertions.assertEquals("30", reloaded.get("database.pool.timeout"));
+    }
+
+    @Test
+    public void testNullPrimitive() throws IOException {
+        MvmlParser parser = this.load();
+        parser.set("database.port", "null");
+
+        RuntimeException record = Assertions.assertThrows(RuntimeException.class, () -> parser.bind("database", Database.class));
+        RuntimeException object = Assertions.assertThrows(RuntimeException.class, () -> parser.bind("database", Settings.class));
+
+        Assertions.assertTrue(record.getMessage().contains("port"));
+        Assertions.assertTrue(object.getMessage().contains("port"));
+    }
+
+    @Test
+    public void testShadowedField() throws IOException {
+        MvmlParser parser = this.load();
+        Derived derived = new Derived();
+        derived.host = "derived";
+        derived.mode = 'r';
+
+        parser.unbind("derived", derived);
+
+        Assertions.assertEquals("derived", parser.get("derived.host"));
+        Assertions.assertEquals("r", parser.get("derived.mode"));
+
+        Derived bound = parser.bind("derived", Derived.class);
+
+        Assertions.assertEquals("derived", bound.host);
+        Assertions.assertEquals('r', bound.mode);
+        Assertions.assertNull(bound.level);
+    }
+
+    private MvmlParser load() throws IOException {
+        File file = new File(this.directory, "bind.yml");
+        Files.write(file.toPath(), Arrays.asList(
+                "database:",
+                "  host: localhost",
+                "  # Comment",
+                "  port: 3306",
+                "  ssl: true",
+                "  unit: SECONDS",
+                "  tables: [a, b]",
+                "  unknown: 1",
+                "  pool:",
+                "    size: 10",
+                "    timeout: 30"
+        ));
+
+        return new MvmlConfiguration(file).setBuffer(new FileBuffer()).load();
+    }
+
+    public record Database(String host, int port, boolean ssl, TimeUnit unit, List<String> tables, Pool pool, int retries) {
+    }
+
+    public record Pool(int size, Long timeout) {
+    }
+
+    public static class Settings {
+        private String host;
+        private int port;
+        private int retries = 5;
+        private PoolSettings pool;
+    }
+
+    public static class Base {
+        private String host = "base";
+    }
+
+    public static class Derived extends Base {
+        private String host;
+        private char mode;
+        private Character level;
+    }
+
+    public static class PoolSettings {
+        private int size;
+        private long timeout;
+    }
+}
@@ -0,0 +1,97 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class CacheTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+    private static final File CACHE = new File("src/test/resources/temp.yml.mvmlc");
+
+    @Test
+    public void testCachedTree() throws IOException {
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setTemplate("example.yml")
+                .setBinaryCache(true)
+                .load();
+
+        Assertions.assertTrue(CACHE.exists());
+
+        MvmlParser cached = new MvmlConfiguration(FILE)
+                .setBinaryCache(true)
+                .load();
+
+        Assertions.assertEquals(this.write(parser), this.write(cached));
+        Assertions.assertEquals(parser.readAll(), cached.readAll());
+        Assertions.assertFalse(cached.isDirty());
+    }
+
+    @Test
+    public void testInvalidation() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        new MvmlConfiguration(FILE)
+                .setBinaryCache(true)
+                .load();
+
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 2", "  c: 3"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setBinaryCache(true)
+                .load();
+
+        Assertions.assertEquals("2", parser.get("a.b"));
+        Assertions.assertEquals("3", parser.get("a.c"));
+    }
+
+    @Test
+    public void testCorruptCache() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        new MvmlConfiguration(FILE)
+                .setBuffer(new FileBuffer())
+                .setBinaryCache(true)
+                .load();
+
+        // Length of the first key, after the header and the amount of children
+        try (RandomAccessFile cache = new RandomAccessFile(CACHE, "rw")) {
+            cache.seek(45);
+            cache.writeInt(Integer.MAX_VALUE - 8);
+        }
+
+        MvmlParser parser;
+
+        // JUnit aborts instead of failing tests which run out of memory
+        try {
+            parser = new MvmlConfiguration(FILE)
+                    .setBuffer(new FileBuffer())
+                    .setBinaryCache(true)
+                    .load();
+        } catch (OutOfMemoryError error) {
+            throw new AssertionError("Corrupt length was allocated", error);
+        }
+
+        Assertions.assertEquals("1", parser.get("a.b"));
+    }
+
+    private String write(MvmlParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        parser.writeTo(writer);
+        return writer.toString();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+        CACHE.delete();
+    }
+}
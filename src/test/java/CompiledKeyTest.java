@@ -0,0 +1,70 @@
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlKey;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class CompiledKeyTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    private MvmlParser parser;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.parser = new MvmlConfiguration(FILE)
+                .setTemplate("example.yml")
+                .load();
+    }
+
+    @Test
+    public void testReadAndWrite() {
+        MvmlKey key = this.parser.compile("Whitelist.join.delay");
+
+        Assertions.assertEquals(1000, key.get(int.class));
+
+        key.set(250);
+
+        Assertions.assertEquals("250", this.parser.get("Whitelist.join.delay"));
+
+        key.set(2.5);
+        key.set(1L << 40);
+
+        Assertions.assertEquals(1L << 40, key.getLong());
+    }
+
+    @Test
+    public void testInvalidation() {
+        MvmlKey key = this.parser.compile("Whitelist.join.delay");
+        Assertions.assertEquals("1000", key.get());
+
+        this.parser.remove("Whitelist.join");
+        Assertions.assertFalse(key.isPresent());
+
+        this.parser.set("Whitelist.join.delay", 10);
+        Assertions.assertEquals("10", key.get());
+
+        this.parser.read();
+        Assertions.assertEquals("1000", key.get());
+    }
+
+    @Test
+    public void testMissingKey() {
+        MvmlKey key = this.parser.compile("Whitelist.missing");
+
+        Assertions.assertThrows(RuntimeException.class, key::get);
+
+        key.set(true);
+        Assertions.assertTrue(key.get(boolean.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
@@ -0,0 +1,63 @@
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class ConcurrencyTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    private MvmlParser parser;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.parser = new MvmlConfiguration(FILE)
+                .setTemplate("example.yml")
+                .setConcurrent(true)
+                .load();
+    }
+
+    @Test
+    public void testConcurrentReadWrite() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 3; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    Assertions.assertEquals("true", this.parser.get("Anticheat.intelligent"));
+                    this.parser.readAll();
+                }
+            }));
+        }
+
+        futures.add(executor.submit(() -> {
+            for (int i = 0; i < 500; i++) {
+                this.parser.set("counter.value-" + (i % 20), i);
+
+                if (i >= 10)
+                    this.parser.remove("counter.value-" + ((i - 10) % 20));
+            }
+        }));
+
+        for (Future<?> future : futures)
+            future.get(30, TimeUnit.SECONDS);
+
+        executor.shutdown();
+
+        Assertions.assertEquals("499", this.parser.get("counter.value-19"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
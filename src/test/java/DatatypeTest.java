@@ -8,8 +8,10 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class DatatypeTest {
 
@@ -51,4 +53,43 @@ public class DatatypeTest {
 
         Assertions.assertEquals(value, testValue);
     }
+
+    @Test
+    public void testEmptyList() {
+        this.parser.set("test", "[]");
+
+        Assertions.assertTrue(this.parser.get("test", List.class).isEmpty());
+    }
+
+    @Test
+    public void testEnum() {
+        this.parser.set("test", TimeUnit.SECONDS);
+
+        Assertions.assertEquals(TimeUnit.SECONDS, this.parser.get("test", TimeUnit.class));
+    }
+
+    @Test
+    public void testCustomConverter() {
+        this.parser.getConfiguration().getConverters().register(Duration.class, value -> Duration.ofSeconds(Long.parseLong(value)));
+        this.parser.set("test", 5);
+
+        Assertions.assertEquals(Duration.ofSeconds(5), this.parser.get("test", Duration.class));
+    }
+
+    @Test
+    public void testPrimitiveGetters() {
+        this.parser.set("int", 42);
+        this.parser.set("long", Long.MAX_VALUE);
+        this.parser.set("double", 0.5d);
+        this.parser.set("boolean", true);
+
+        Assertions.assertEquals(42, this.parser.getInt("int"));
+        Assertions.assertEquals(Long.MAX_VALUE, this.parser.getLong("long"));
+        Assertions.assertEquals(0.5d, this.parser.getDouble("double"));
+        Assertions.assertTrue(this.parser.getBoolean("boolean"));
+        Assertions.assertThrows(NumberFormatException.class, () -> this.parser.getInt("long"));
+
+        this.parser.set("int", 43);
+        Assertions.assertEquals(43, this.parser.getInt("int"));
+    }
 }
@@ -0,0 +1,123 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class FileBufferTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testEviction() throws IOException {
+        FileBuffer buffer = new FileBuffer().setMaximumSize(2);
+        List<MvmlParser> parsers = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++)
+            parsers.add(this.load(buffer, i));
+
+        Assertions.assertTrue(buffer.size() <= 2);
+        Assertions.assertTrue(buffer.getEvictionCount() >= 3);
+
+        long misses = buffer.getMissCount();
+
+        // Evicted files are parsed again
+        for (int i = 0; i < 5; i++)
+            Assertions.assertEquals(i, parsers.get(i).getInt("a.b"));
+
+        Assertions.assertTrue(buffer.getMissCount() > misses);
+        Assertions.assertTrue(buffer.size() <= 2);
+
+        long hits = buffer.getHitCount();
+
+        Assertions.assertEquals(4, parsers.get(4).getInt("a.b"));
+        Assertions.assertEquals(hits + 1, buffer.getHitCount());
+    }
+
+    @Test
+    public void testModifiedTreesAreKept() throws IOException {
+        FileBuffer buffer = new FileBuffer().setMaximumSize(1).setSoftValues(true);
+
+        MvmlParser parser = this.load(buffer, 0);
+        parser.set("a.b", 42);
+        parser.compile("a.c").set(43);
+
+        for (int i = 1; i < 5; i++)
+            this.load(buffer, i);
+
+        Assertions.assertEquals(42, parser.getInt("a.b"));
+        Assertions.assertEquals(43, parser.getInt("a.c"));
+
+        parser.save();
+
+        this.load(buffer, 5);
+        Assertions.assertEquals(42, parser.getInt("a.b"));
+    }
+
+    @Test
+    public void testWeight() throws IOException {
+        FileBuffer buffer = new FileBuffer().setMaximumWeight(20);
+
+        for (int i = 0; i < 5; i++)
+            this.load(buffer, i);
+
+        Assertions.assertTrue(buffer.size() < 5);
+    }
+
+    @Test
+    public void testReparseDoesNotOverwriteWriters() throws Exception {
+        FileBuffer buffer = new FileBuffer().setMaximumSize(1);
+
+        List<String> lines = new ArrayList<>(Arrays.asList("a:", "  b: 0"));
+
+        for (int i = 0; i < 20000; i++)
+            lines.add("k" + i + ": " + i);
+
+        File file = new File(this.directory, "shared.yml");
+        Files.write(file.toPath(), lines);
+
+        MvmlParser parser = new MvmlConfiguration(file).setBuffer(buffer).setConcurrent(true).load();
+        MvmlParser other = this.load(buffer, 0);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // Readers parse the file again whenever the other file has evicted it
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                parser.get("a.b");
+                other.get("a.b");
+            }
+        });
+
+        reader.start();
+
+        try {
+            for (int i = 1; i <= 300; i++) {
+                parser.set("a.b", i);
+                Assertions.assertEquals(i, parser.getInt("a.b"));
+
+                parser.save();
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+    }
+
+    private MvmlParser load(FileBuffer buffer, int index) throws IOException {
+        File file = new File(this.directory, index + ".yml");
+        Files.write(file.toPath(), Arrays.asList("a:", "  b: " + index));
+
+        return new MvmlConfiguration(file).setBuffer(buffer).load();
+    }
+}
@@ -0,0 +1,113 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class LazyTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Files.copy(new File("src/test/resources/example.yml").toPath(), FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Test
+    public void testSameTree() throws IOException {
+        MvmlParser eager = new MvmlConfiguration(FILE).load();
+        String expected = this.write(eager);
+
+        MvmlParser lazy = new MvmlConfiguration(FILE)
+                .setLazy(true)
+                .load();
+
+        Assertions.assertEquals("1000", lazy.get("Whitelist.join.delay"));
+        Assertions.assertEquals(expected, this.write(lazy));
+        Assertions.assertEquals(eager.readAll(), lazy.readAll());
+    }
+
+    @Test
+    public void testModifyUntouchedSection() throws IOException {
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setLazy(true)
+                .setMemoryMapped(true)
+                .load();
+
+        parser.set("Anticheat.targets.player", true);
+        parser.set("Whitelist.startup.retries", 3);
+        parser.remove("Whitelist.join");
+        parser.save();
+
+        MvmlParser reloaded = new MvmlConfiguration(FILE).load();
+
+        Assertions.assertEquals("true", reloaded.get("Anticheat.targets.player"));
+        Assertions.assertEquals("3", reloaded.get("Whitelist.startup.retries"));
+        Assertions.assertEquals("2000", reloaded.get("Whitelist.respawn.delay"));
+        Assertions.assertThrows(RuntimeException.class, () -> reloaded.get("Whitelist.join.delay"));
+    }
+
+    @Test
+    public void testBackgroundSave() throws Exception {
+        List<String> lines = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            lines.add("s" + i + ":");
+
+            for (int j = 0; j < 5; j++)
+                lines.add("  k" + j + ": " + j);
+        }
+
+        Files.write(FILE.toPath(), lines);
+
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setLazy(true)
+                .setWriteBehindDelay(1)
+                .load();
+
+        for (int i = 0; i < 2000; i++) {
+            parser.set("s" + i + ".k0", i);
+            Assertions.assertEquals("3", parser.get("s" + (1999 - i) + ".k3"));
+        }
+
+        parser.saveAsync().get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals("1999", new MvmlConfiguration(FILE).setBuffer(new FileBuffer()).load().get("s1999.k0"));
+
+        // Saving in the background parses the remaining sections first
+        for (int round = 0; round < 20; round++) {
+            parser = new MvmlConfiguration(FILE).setLazy(true).load();
+            parser.set("s0.k0", round);
+
+            CompletableFuture<Void> save = parser.saveAsync();
+
+            for (int i = 0; i < 2000; i++)
+                Assertions.assertEquals("4", parser.get("s" + i + ".k4"));
+
+            save.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private String write(MvmlParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        parser.writeTo(writer);
+        return writer.toString();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
@@ -0,0 +1,66 @@
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+public class LookupTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    private MvmlParser parser;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.parser = new MvmlConfiguration(FILE)
+                .setTemplate("example.yml")
+                .load();
+    }
+
+    @Test
+    public void testNestedLookup() {
+        Assertions.assertEquals("true", this.parser.get("Anticheat.pipeline.allow-cancle"));
+        Assertions.assertEquals("5000", this.parser.get("Whitelist.startup.delay"));
+        Assertions.assertEquals("LICENSE", this.parser.get("License"));
+    }
+
+    @Test
+    public void testMissingKey() {
+        Assertions.assertThrows(RuntimeException.class, () -> this.parser.get("Anticheat.missing"));
+        Assertions.assertThrows(RuntimeException.class, () -> this.parser.get("Whitelist.startup"));
+    }
+
+    @Test
+    public void testSetCreatesPath() {
+        this.parser.set("Whitelist.startup.retries", 3);
+        this.parser.set("new.nested.key", "value");
+
+        Assertions.assertEquals("3", this.parser.get("Whitelist.startup.retries"));
+        Assertions.assertEquals("value", this.parser.get("new.nested.key"));
+    }
+
+    @Test
+    public void testRemoveNested() {
+        this.parser.remove("Whitelist.join");
+
+        Assertions.assertThrows(RuntimeException.class, () -> this.parser.get("Whitelist.join.enable"));
+        Assertions.assertEquals("false", this.parser.get("Whitelist.respawn.enable"));
+    }
+
+    @Test
+    public void testMigrateKeepsIndex() throws IOException {
+        this.parser.set("Whitelist.join.delay", 42);
+        this.parser.migrate();
+
+        Assertions.assertEquals("42", this.parser.get("Whitelist.join.delay"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
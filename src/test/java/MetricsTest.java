@@ -0,0 +1,80 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import me.micartey.mvml.metrics.JfrListener;
+import me.micartey.mvml.metrics.MvmlListener;
+import me.micartey.mvml.metrics.MvmlMetrics;
+import me.micartey.mvml.metrics.MvmlOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class MetricsTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @Test
+    public void testMetrics() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1", "c: \u00e4"));
+
+        MvmlMetrics metrics = new MvmlMetrics();
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setListener(MvmlListener.of(metrics, new JfrListener()))
+                .load();
+
+        parser.get("a.b");
+        Assertions.assertThrows(RuntimeException.class, () -> parser.get("x"));
+
+        parser.set("a.b", 2);
+        parser.compile("a.b").set(3);
+
+        // Failed changes are not counted
+        Assertions.assertThrows(RuntimeException.class, () -> parser.set("a", 1));
+
+        parser.save();
+        parser.migrate();
+
+        Assertions.assertEquals(1, metrics.getLatency(MvmlOperation.LOAD).getCount());
+        Assertions.assertEquals(2, metrics.getLatency(MvmlOperation.PARSE).getCount());
+        Assertions.assertEquals(1, metrics.getLatency(MvmlOperation.SAVE).getCount());
+        Assertions.assertEquals(1, metrics.getLatency(MvmlOperation.MIGRATE).getCount());
+
+        Assertions.assertTrue(metrics.getLookupCount() >= 2);
+        Assertions.assertEquals(1, metrics.getMissCount());
+        Assertions.assertEquals(2, metrics.getSetCount());
+        Assertions.assertEquals(3, metrics.getNodeCount(FILE));
+
+        // Only the lines after "a:" have been written
+        Assertions.assertEquals(Files.size(FILE.toPath()) - 2 - System.lineSeparator().length(), metrics.getBytesWritten());
+        Assertions.assertEquals(2 * Files.size(FILE.toPath()), metrics.getBytesRead());
+    }
+
+    @Test
+    public void testReads() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1", "c: \u00e4"));
+
+        MvmlMetrics metrics = new MvmlMetrics();
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setBuffer(new FileBuffer())
+                .setListener(metrics)
+                .load();
+
+        parser.compile("a.b").getInt();
+        parser.section("a").readAll();
+        parser.section("x").contains("y");
+        parser.stream().count();
+        parser.readRange("a", "b");
+
+        Assertions.assertEquals(5, metrics.getLookupCount());
+        Assertions.assertEquals(1, metrics.getMissCount());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
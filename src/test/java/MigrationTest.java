@@ -0,0 +1,90 @@
+import me.micartey.mvml.MigrationReport;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class MigrationTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @Test
+    public void testMigrate() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList(
+                "# Old comment",
+                "a:",
+                "  b: 1",
+                "  c: 2",
+                "old:",
+                "  # Old nested comment",
+                "  key: value"
+        ));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        Files.write(FILE.toPath(), Arrays.asList(
+                "# Template comment",
+                "a:",
+                "  # Nested template comment",
+                "  b: 10",
+                "  c: 2",
+                "  d: 3"
+        ));
+
+        MigrationReport report = parser.migrate();
+
+        Assertions.assertEquals(Collections.singletonList("a.d"), report.getAdded());
+        Assertions.assertEquals(Collections.singletonList("old.key"), report.getRetained());
+        Assertions.assertEquals(Collections.singletonList("a.b"), report.getOverridden());
+
+        parser.save();
+
+        Assertions.assertEquals(Arrays.asList(
+                "# Template comment",
+                "a:",
+                "  # Nested template comment",
+                "  b: 1",
+                "  c: 2",
+                "  d: 3",
+                "old:",
+                "  key: value"
+        ), Files.readAllLines(FILE.toPath()));
+
+        Assertions.assertEquals("value", parser.get("old.key"));
+    }
+
+    @Test
+    public void testConflict() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList(
+                "a:",
+                "  b: 1",
+                "c: 2"
+        ));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        Files.write(FILE.toPath(), Arrays.asList(
+                "a: 5",
+                "c:",
+                "  d: 3"
+        ));
+
+        MigrationReport report = parser.migrate();
+
+        Assertions.assertEquals(Arrays.asList("a.b", "c"), report.getConflicting());
+        Assertions.assertTrue(report.getAdded().isEmpty());
+        Assertions.assertEquals("5", parser.get("a"));
+        Assertions.assertEquals("3", parser.get("c.d"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
@@ -0,0 +1,49 @@
+import me.micartey.mvml.nodes.LeafNode;
+import me.micartey.mvml.nodes.Node;
+import me.micartey.mvml.nodes.ParentNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+public class NodeListTest {
+
+    @Test
+    public void testModificationThroughAnotherView() {
+        ParentNode parent = this.parent();
+
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            for (Node child : parent.getChildren())
+                parent.getChildren().remove(child);
+        });
+
+        Assertions.assertThrows(ConcurrentModificationException.class, () -> {
+            for (Node child : parent.getChildren())
+                parent.getChildren().addLast(new LeafNode("d", "4"));
+        });
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        ParentNode parent = this.parent();
+
+        for (Iterator<Node> iterator = parent.getChildren().iterator(); iterator.hasNext(); ) {
+            if (!iterator.next().getKey().equals("b"))
+                iterator.remove();
+        }
+
+        Assertions.assertEquals(1, parent.getChildren().size());
+        Assertions.assertEquals("b", parent.getChildren().getFirst().getKey());
+    }
+
+    private ParentNode parent() {
+        ParentNode parent = new ParentNode("parent");
+
+        parent.getChildren().addLast(new LeafNode("a", "1"));
+        parent.getChildren().addLast(new LeafNode("b", "2"));
+        parent.getChildren().addLast(new LeafNode("c", "3"));
+
+        return parent;
+    }
+}
@@ -0,0 +1,73 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ParallelTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testSameTree() throws IOException {
+        List<String> lines = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            lines.add("# Section " + i);
+            lines.add("section" + i + ":");
+            lines.add("  name: section " + i);
+            lines.add("  nested:");
+            lines.add("    value:   " + i);
+            lines.add("    # comment");
+            lines.add("");
+            lines.add("key" + i + ": " + i);
+        }
+
+        File file = new File(this.directory, "large.yml");
+        Files.write(file.toPath(), lines);
+
+        MvmlParser sequential = new MvmlConfiguration(file).setBuffer(new FileBuffer()).load();
+        MvmlParser parallel = new MvmlConfiguration(file).setBuffer(new FileBuffer()).setParallel(true).load();
+
+        Assertions.assertEquals("4999", parallel.get("section4999.nested.value"));
+        Assertions.assertEquals(sequential.readAll(), parallel.readAll());
+        Assertions.assertEquals(this.write(sequential), this.write(parallel));
+
+        // Lines which are not written as they are have to be detected in every section
+        parallel.set("key4999", 0);
+        parallel.save();
+
+        MvmlParser reloaded = new MvmlConfiguration(file).setBuffer(new FileBuffer()).load();
+
+        Assertions.assertEquals("0", reloaded.get("key4999"));
+        Assertions.assertEquals("4998", reloaded.get("section4998.nested.value"));
+        Assertions.assertEquals(this.write(sequential).replace("key4999: 4999", "key4999: 0"), this.write(reloaded));
+    }
+
+    @Test
+    public void testSmallFile() throws IOException {
+        File file = new File(this.directory, "small.yml");
+        Files.write(file.toPath(), Arrays.asList("a:", "  b: 1", "c: 2"));
+
+        MvmlParser parser = new MvmlConfiguration(file).setBuffer(new FileBuffer()).setParallel(true).load();
+
+        Assertions.assertEquals(1, parser.getInt("a.b"));
+        Assertions.assertEquals(2, parser.getInt("c"));
+    }
+
+    private String write(MvmlParser parser) throws IOException {
+        StringWriter writer = new StringWriter();
+        parser.writeTo(writer);
+        return writer.toString();
+    }
+}
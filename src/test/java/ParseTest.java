@@ -0,0 +1,98 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.List;
+
+public class ParseTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setTemplate("example.yml")
+                .load();
+
+        parser.save();
+
+        Assertions.assertEquals(
+                Files.readAllLines(new File("src/test/resources/example.yml").toPath()),
+                Files.readAllLines(FILE.toPath())
+        );
+    }
+
+    @Test
+    public void testNesting() throws IOException {
+        List<String> lines = Arrays.asList(
+                "# Header",
+                "",
+                "a:",
+                "  b:",
+                "    # Comment",
+                "    c: 1",
+                "",
+                "  d: 2",
+                "e: 3"
+        );
+
+        Files.write(FILE.toPath(), lines);
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        Assertions.assertEquals("1", parser.get("a.b.c"));
+        Assertions.assertEquals("2", parser.get("a.d"));
+        Assertions.assertEquals("3", parser.get("e"));
+
+        parser.save();
+
+        Assertions.assertEquals(lines, Files.readAllLines(FILE.toPath()));
+    }
+
+    @Test
+    public void testMemoryMapped() throws IOException {
+        Files.write(FILE.toPath(), "# Header\r\na:\r\n  b: \u00e4\n\nc: 1".getBytes(StandardCharsets.UTF_8));
+
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setMemoryMapped(true)
+                .load();
+
+        Assertions.assertEquals("\u00e4", parser.get("a.b"));
+        Assertions.assertEquals("1", parser.get("c"));
+        Assertions.assertEquals(Arrays.asList(
+                new AbstractMap.SimpleEntry<>("a.b", "\u00e4"),
+                new AbstractMap.SimpleEntry<>("c", "1")
+        ), parser.readAll());
+    }
+
+    @Test
+    public void testInvalidIndent() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("a: 1", "    b: 2"));
+
+        Assertions.assertThrows(RuntimeException.class, () -> new MvmlConfiguration(FILE).load());
+    }
+
+    @Test
+    public void testMalformedInput() throws IOException {
+        Files.write(FILE.toPath(), new byte[] { 'a', ':', ' ', (byte) 0xC3, '(', '\n' });
+
+        Assertions.assertThrows(MalformedInputException.class, () -> new MvmlConfiguration(FILE).setBuffer(new FileBuffer()).load());
+        Assertions.assertThrows(MalformedInputException.class, () -> new MvmlConfiguration(FILE).setBuffer(new FileBuffer()).setMemoryMapped(true).load());
+        Assertions.assertThrows(MalformedInputException.class, () -> new MvmlConfiguration(FILE).setBuffer(new FileBuffer()).setParallel(true).load());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
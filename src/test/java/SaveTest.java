@@ -0,0 +1,89 @@
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class SaveTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @Test
+    public void testSkipUnchanged() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+        FILE.setLastModified(1_000_000_000L);
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        parser.set("a.b", 1);
+        Assertions.assertFalse(parser.isDirty());
+
+        parser.save();
+        Assertions.assertEquals(1_000_000_000L, FILE.lastModified());
+
+        parser.set("a.b", 2);
+        Assertions.assertTrue(parser.isDirty());
+
+        parser.save();
+        Assertions.assertFalse(parser.isDirty());
+        Assertions.assertEquals(Arrays.asList("a:", "  b: 2"), Files.readAllLines(FILE.toPath()));
+    }
+
+    @Test
+    public void testPartialWrite() throws IOException {
+        Files.write(FILE.toPath(), "# Header\r\na:\r\n  b: 1\r\n  c: 2\r\nd: 3\r\n".getBytes(StandardCharsets.UTF_8));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        parser.set("a.c", 4);
+        parser.save();
+
+        Assertions.assertEquals("# Header\r\na:\r\n  b: 1\r\n  c: 4\r\nd: 3\r\n", new String(Files.readAllBytes(FILE.toPath()), StandardCharsets.UTF_8));
+
+        parser.set("a.e", 5);
+        parser.remove("d");
+        parser.save();
+
+        Assertions.assertEquals("# Header\r\na:\r\n  b: 1\r\n  c: 4\r\n  e: 5\r\n", new String(Files.readAllBytes(FILE.toPath()), StandardCharsets.UTF_8));
+
+        parser.read();
+        Assertions.assertEquals("5", parser.get("a.e"));
+    }
+
+    @Test
+    public void testNormalizeOnSave() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b:1", "c: 2"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+        Assertions.assertTrue(parser.isDirty());
+
+        parser.save();
+        Assertions.assertEquals(Arrays.asList("a:", "  b: 1", "c: 2"), Files.readAllLines(FILE.toPath()));
+    }
+
+    @Test
+    public void testWriteTo() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("# Header", "a:", "  b: 1", "", "c: 2"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+        parser.set("a.d.e", 3);
+
+        StringWriter writer = new StringWriter();
+        parser.writeTo(writer);
+
+        String separator = System.lineSeparator();
+        Assertions.assertEquals(String.join(separator, "# Header", "a:", "  b: 1", "", "  d:", "    e: 3", "c: 2") + separator, writer.toString());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
@@ -0,0 +1,94 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import me.micartey.mvml.MvmlSection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.Arrays;
+
+public class SectionTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testSection() throws IOException {
+        for (boolean lazy : new boolean[] { false, true }) {
+            MvmlParser parser = this.load(lazy);
+            MvmlSection pools = parser.section("db.pools");
+
+            Assertions.assertTrue(pools.isPresent());
+            Assertions.assertEquals(10, pools.getInt("main.size"));
+            Assertions.assertEquals("5", pools.section("replica").get("size"));
+            Assertions.assertEquals(Arrays.asList("main.size", "main.timeout", "replica.size"), pools.keys());
+
+            // Changes are visible in the view and the sorted index
+            pools.set("audit.size", 1);
+            pools.remove("main.timeout");
+
+            Assertions.assertEquals("1", parser.get("db.pools.audit.size"));
+            Assertions.assertFalse(pools.contains("main.timeout"));
+            Assertions.assertEquals(Arrays.asList(
+                    new AbstractMap.SimpleEntry<>("audit.size", "1"),
+                    new AbstractMap.SimpleEntry<>("main.size", "10"),
+                    new AbstractMap.SimpleEntry<>("replica.size", "5")
+            ), pools.readAll());
+
+            Assertions.assertFalse(parser.section("db.missing").isPresent());
+            Assertions.assertTrue(parser.section("db.missing").keys().isEmpty());
+        }
+    }
+
+    @Test
+    public void testRootSection() throws IOException {
+        for (boolean lazy : new boolean[] { false, true }) {
+            MvmlSection tenant = this.load(lazy).section("tenant");
+
+            Assertions.assertEquals(Arrays.asList("a", "b"), tenant.keys());
+            Assertions.assertEquals(Arrays.asList(
+                    new AbstractMap.SimpleEntry<>("a", "1"),
+                    new AbstractMap.SimpleEntry<>("b", "2")
+            ), tenant.readAll());
+        }
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        MvmlParser parser = this.load(true);
+
+        Assertions.assertEquals(Arrays.asList(
+                new AbstractMap.SimpleEntry<>("db.pools.replica.size", "5"),
+                new AbstractMap.SimpleEntry<>("db.url", "localhost")
+        ), parser.readRange("db.pools.r", "db.z"));
+
+        Assertions.assertEquals(Arrays.asList(
+                new AbstractMap.SimpleEntry<>("tenant.a", "1"),
+                new AbstractMap.SimpleEntry<>("tenant.b", "2")
+        ), parser.readRange("tenant.", "tenant/"));
+    }
+
+    private MvmlParser load(boolean lazy) throws IOException {
+        File file = new File(this.directory, "section.yml");
+        Files.write(file.toPath(), Arrays.asList(
+                "db:",
+                "  url: localhost",
+                "  pools:",
+                "    replica:",
+                "      size: 5",
+                "    main:",
+                "      timeout: 30",
+                "      size: 10",
+                "tenant:",
+                "  b: 2",
+                "  a: 1"
+        ));
+
+        return new MvmlConfiguration(file).setBuffer(new FileBuffer()).setLazy(lazy).load();
+    }
+}
@@ -0,0 +1,89 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class StreamTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testPrefix() throws IOException {
+        MvmlParser parser = this.load(false, "# Header", "a:", "  b: 1", "  # Comment", "  c:", "    d: 2", "", "e: 3");
+
+        Assertions.assertEquals(Arrays.asList(
+                new AbstractMap.SimpleEntry<>("a.b", "1"),
+                new AbstractMap.SimpleEntry<>("a.c.d", "2"),
+                new AbstractMap.SimpleEntry<>("e", "3")
+        ), parser.stream().collect(Collectors.toList()));
+
+        Assertions.assertEquals(Arrays.asList(
+                new AbstractMap.SimpleEntry<>("a.b", "1"),
+                new AbstractMap.SimpleEntry<>("a.c.d", "2")
+        ), parser.stream("a").collect(Collectors.toList()));
+
+        Assertions.assertEquals(Collections.singletonList(new AbstractMap.SimpleEntry<>("a.c.d", "2")), parser.stream("a.c.d").collect(Collectors.toList()));
+        Assertions.assertEquals(0, parser.stream("a.x").count());
+    }
+
+    @Test
+    public void testParallel() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("config:");
+
+        for (int i = 0; i < 2000; i++) {
+            lines.add("  section" + i + ":");
+            lines.add("    value: " + i);
+
+            for (int j = 0; j < 5; j++)
+                lines.add("    key" + j + ": " + j);
+        }
+
+        for (boolean lazy : new boolean[] { false, true }) {
+            MvmlParser parser = this.load(lazy, lines.toArray(new String[0]));
+
+            List<Map.Entry<String, String>> expected = parser.stream().collect(Collectors.toList());
+
+            Assertions.assertEquals(12000, expected.size());
+            Assertions.assertEquals(expected, parser.stream().parallel().collect(Collectors.toList()));
+            Assertions.assertEquals(expected, parser.readAll());
+
+            Assertions.assertEquals(2000, parser.stream("config").parallel().filter(entry -> entry.getKey().endsWith(".value")).count());
+        }
+    }
+
+    @Test
+    public void testSplit() throws IOException {
+        MvmlParser parser = this.load(false, "a:", "  b: 1", "  c: 2", "  d:", "    e: 3", "    f: 4", "g: 5");
+
+        Spliterator<Map.Entry<String, String>> second = parser.stream().spliterator();
+        List<String> keys = new ArrayList<>();
+
+        second.tryAdvance(entry -> keys.add(entry.getKey()));
+
+        Spliterator<Map.Entry<String, String>> first = second.trySplit();
+
+        Assertions.assertNotNull(first);
+
+        first.forEachRemaining(entry -> keys.add(entry.getKey()));
+        second.forEachRemaining(entry -> keys.add(entry.getKey()));
+
+        Assertions.assertEquals(Arrays.asList("a.b", "a.c", "a.d.e", "a.d.f", "g"), keys);
+    }
+
+    private MvmlParser load(boolean lazy, String... lines) throws IOException {
+        File file = new File(this.directory, "stream.yml");
+        Files.write(file.toPath(), Arrays.asList(lines));
+
+        return new MvmlConfiguration(file).setBuffer(new FileBuffer()).setLazy(lazy).load();
+    }
+}
@@ -0,0 +1,59 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import me.micartey.mvml.StringPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class StringPoolTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    public void testSharedStrings() throws IOException {
+        StringPool pool = new StringPool();
+        FileBuffer buffer = new FileBuffer().setPool(pool);
+
+        MvmlParser first = this.load(buffer, "first.yml");
+        MvmlParser second = this.load(buffer, "second.yml");
+
+        Assertions.assertEquals("localhost", first.get("database.host"));
+        Assertions.assertEquals("localhost", second.get("database.host"));
+
+        Assertions.assertTrue(pool.getHitCount() > 0);
+        Assertions.assertTrue(pool.getSavedBytes() > 0);
+        Assertions.assertTrue(pool.isPooled(pool.intern("database")));
+
+        long footprint = buffer.getFootprint(first.getConfiguration().getFile());
+
+        Assertions.assertTrue(footprint > 0);
+        Assertions.assertEquals(-1, buffer.getFootprint(new File(this.directory, "missing.yml")));
+    }
+
+    @Test
+    public void testLongValuesAreNotPooled() {
+        StringPool pool = new StringPool(4);
+
+        String value = new String("not pooled");
+        Assertions.assertSame(value, pool.internValue(value));
+        Assertions.assertFalse(pool.isPooled(value));
+
+        String key = new String("key");
+        Assertions.assertSame(key, pool.intern(key));
+        Assertions.assertSame(key, pool.internValue(new String("key")));
+    }
+
+    private MvmlParser load(FileBuffer buffer, String name) throws IOException {
+        File file = new File(this.directory, name);
+        Files.write(file.toPath(), Arrays.asList("database:", "  host: localhost", "  port: 3306"));
+
+        return new MvmlConfiguration(file).setBuffer(buffer).load();
+    }
+}
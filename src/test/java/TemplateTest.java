@@ -1,9 +1,14 @@
+import me.micartey.mvml.FileBuffer;
 import me.micartey.mvml.MvmlConfiguration;
 import me.micartey.mvml.MvmlParser;
 import org.junit.jupiter.api.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 public class TemplateTest {
 
@@ -25,6 +30,52 @@ public class TemplateTest {
         Assertions.assertEquals(parser.get("License"), "123123");
     }
 
+    @Test
+    public void testUnchangedFileIsNotWritten() throws IOException {
+        MvmlParser parser = new MvmlConfiguration(FILE).setTemplate("example.yml").load();
+        parser.set("License", "123123");
+        parser.save();
+
+        Assertions.assertTrue(FILE.setLastModified(1000));
+
+        parser = new MvmlConfiguration(FILE).setTemplate("example.yml").load();
+
+        Assertions.assertEquals(1000, FILE.lastModified());
+        Assertions.assertEquals("123123", parser.get("License"));
+        Assertions.assertFalse(parser.isDirty());
+    }
+
+    @Test
+    public void testSectionReplacedByValue() throws IOException {
+        Files.write(FILE.toPath(), Arrays.asList("License:", "  key: 123123"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).setTemplate("example.yml").load();
+
+        Assertions.assertEquals("LICENSE", parser.get("License"));
+        Assertions.assertTrue(parser.get("Whitelist.startup.enable", boolean.class));
+    }
+
+    @Test
+    public void testModes() throws IOException {
+        for (boolean mapped : new boolean[] { false, true }) {
+            Files.write(FILE.toPath(), Arrays.asList("License: 123123"));
+
+            MvmlParser parser = new MvmlConfiguration(FILE)
+                    .setBuffer(new FileBuffer())
+                    .setMemoryMapped(mapped)
+                    .setParallel(!mapped)
+                    .setTemplate("example.yml")
+                    .load();
+
+            StringWriter writer = new StringWriter();
+            parser.writeTo(writer);
+
+            Assertions.assertEquals("123123", parser.get("License"));
+            Assertions.assertEquals(writer.toString(), new String(Files.readAllBytes(FILE.toPath()), StandardCharsets.UTF_8));
+            Assertions.assertFalse(parser.isDirty());
+        }
+    }
+
     @AfterEach
     public void tearDown() {
         FILE.delete();
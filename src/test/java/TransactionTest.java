@@ -0,0 +1,94 @@
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class TransactionTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @Test
+    public void testUpdate() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1", "  c: 2"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).setConcurrent(true).load();
+
+        parser.update(transaction -> {
+            for (int i = 0; i < 1000; i++)
+                transaction.set("d.e" + i, i);
+
+            transaction.set("a.b", 10).remove("a.c");
+        });
+
+        Assertions.assertEquals(10, parser.getInt("a.b"));
+        Assertions.assertEquals(999, parser.getInt("d.e999"));
+        Assertions.assertThrows(RuntimeException.class, () -> parser.get("a.c"));
+    }
+
+    @Test
+    public void testFailedUpdateIsNotPublished() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).setConcurrent(true).load();
+
+        Assertions.assertThrows(RuntimeException.class, () -> parser.update(transaction -> transaction
+                .set("a.b", 2)
+                .remove("x")
+        ));
+
+        Assertions.assertEquals(1, parser.getInt("a.b"));
+        Assertions.assertFalse(parser.isDirty());
+    }
+
+    @Test
+    public void testFailedUpdateIsRolledBack() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a: 1", "p:", "  q: 2"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        List<Map.Entry<String, String>> values = parser.readAll();
+
+        Assertions.assertThrows(RuntimeException.class, () -> parser.update(transaction -> transaction
+                .set("a", 99)
+                .set("b.c", 3)
+                .remove("p.q")
+                .set("p", 5)
+        ));
+
+        Assertions.assertEquals(1, parser.getInt("a"));
+        Assertions.assertEquals(2, parser.getInt("p.q"));
+        Assertions.assertFalse(parser.compile("b.c").isPresent());
+        Assertions.assertFalse(parser.isDirty());
+        Assertions.assertEquals(values, parser.readAll());
+
+        parser.update(transaction -> transaction.set("a", 99).set("p.q", 3));
+
+        Assertions.assertEquals(99, parser.getInt("a"));
+        Assertions.assertEquals(3, parser.getInt("p.q"));
+    }
+
+    @Test
+    public void testSingleSave() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).setWriteBehindDelay(50).load();
+
+        parser.update(transaction -> transaction.set("a.b", 2).set("a.c", 3));
+        parser.saveAsync().get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(Arrays.asList("a:", "  b: 2", "  c: 3"), Files.readAllLines(FILE.toPath()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}
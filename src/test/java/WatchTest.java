@@ -0,0 +1,87 @@
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import me.micartey.mvml.MvmlWatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class WatchTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    private MvmlWatcher watcher;
+
+    @Test
+    public void testReload() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("# Header", "a:", "  b: 1", "c:", "  d: 2", "e: 3"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+        CountDownLatch reloaded = new CountDownLatch(1);
+
+        this.watcher = parser.watch().onReload(reloaded::countDown);
+
+        Files.write(FILE.toPath(), Arrays.asList("# Header", "a:", "  b: 1", "c:", "  d: 20", "  f: 4", "e: 3", "g: 5"));
+
+        Assertions.assertTrue(reloaded.await(10, TimeUnit.SECONDS));
+
+        Assertions.assertEquals("1", parser.get("a.b"));
+        Assertions.assertEquals("20", parser.get("c.d"));
+        Assertions.assertEquals("4", parser.get("c.f"));
+        Assertions.assertEquals("3", parser.get("e"));
+        Assertions.assertEquals("5", parser.get("g"));
+        Assertions.assertFalse(parser.isDirty());
+
+        // Line numbers of reused sections have to be shifted for partial saves
+        parser.set("e", 30);
+        parser.save();
+
+        Assertions.assertEquals(Arrays.asList("# Header", "a:", "  b: 1", "c:", "  d: 20", "  f: 4", "e: 30", "g: 5"), Files.readAllLines(FILE.toPath()));
+    }
+
+    @Test
+    public void testSaveIsNotReloaded() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).setWatchDelay(10).load();
+        CountDownLatch reloaded = new CountDownLatch(1);
+
+        this.watcher = parser.watch().onReload(reloaded::countDown);
+
+        parser.set("a.b", 2);
+        parser.save();
+
+        Assertions.assertFalse(reloaded.await(500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals("2", parser.get("a.b"));
+    }
+
+    @Test
+    public void testUnsavedChangesAreKept() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE).setWatchDelay(10).load();
+        CountDownLatch conflict = new CountDownLatch(1);
+
+        this.watcher = parser.watch().onError(exception -> conflict.countDown());
+
+        parser.set("a.b", 2);
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 3"));
+
+        Assertions.assertTrue(conflict.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals("2", parser.get("a.b"));
+        Assertions.assertTrue(parser.isDirty());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (this.watcher != null)
+            this.watcher.close();
+
+        FILE.delete();
+    }
+}
@@ -0,0 +1,79 @@
+import me.micartey.mvml.FileBuffer;
+import me.micartey.mvml.MvmlConfiguration;
+import me.micartey.mvml.MvmlParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class WriteBehindTest {
+
+    private static final File FILE = new File("src/test/resources/temp.yml");
+
+    @Test
+    public void testCoalescedSave() throws Exception {
+        Files.write(FILE.toPath(), Arrays.asList("a:", "  b: 1"));
+
+        MvmlParser parser = new MvmlConfiguration(FILE)
+                .setWriteBehindDelay(200)
+                .setAtomicSave(true)
+                .setSyncOnSave(true)
+                .load();
+
+        for (int i = 0; i < 100; i++)
+            parser.set("a.b", i);
+
+        parser.set("a.c", "\u00e4");
+
+        Assertions.assertEquals(Arrays.asList("a:", "  b: 1"), Files.readAllLines(FILE.toPath()));
+
+        parser.saveAsync().get(5, TimeUnit.SECONDS);
+
+        Assertions.assertFalse(parser.isDirty());
+        Assertions.assertEquals(Arrays.asList("a:", "  b: 99", "  c: \u00e4"), Files.readAllLines(FILE.toPath()));
+        Assertions.assertFalse(new File(FILE.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void testSaveAsyncWhileWriting() throws Exception {
+        List<String> lines = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++)
+            lines.add("k" + i + ": 0");
+
+        Files.write(FILE.toPath(), lines);
+
+        MvmlParser parser = new MvmlConfiguration(FILE).load();
+
+        for (int round = 1; round <= 50; round++) {
+            CompletableFuture<Void> save = parser.saveAsync();
+
+            // Changes while the tree is being written must not be lost
+            for (int i = 0; i < 2000; i += 7)
+                parser.set("k" + i, round);
+
+            save.get(5, TimeUnit.SECONDS);
+        }
+
+        parser.save();
+
+        MvmlParser reloaded = new MvmlConfiguration(FILE).setBuffer(new FileBuffer()).load();
+
+        Assertions.assertFalse(parser.isDirty());
+        Assertions.assertEquals(parser.readAll(), reloaded.readAll());
+        Assertions.assertEquals("50", reloaded.get("k1995"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FILE.delete();
+    }
+}